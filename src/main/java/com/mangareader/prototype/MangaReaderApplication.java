@@ -2,6 +2,8 @@ package com.mangareader.prototype;
 
 import com.mangareader.prototype.ui.component.ThemeManager;
 import com.mangareader.prototype.ui.view.MainView;
+import com.mangareader.prototype.util.HttpClientManager;
+import com.mangareader.prototype.util.ImageCache;
 
 import javafx.application.Application;
 import javafx.scene.Scene;
@@ -23,6 +25,12 @@ public class MangaReaderApplication extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        HttpClientManager.getInstance().shutdown();
+        ImageCache.getInstance().shutdown();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -3,11 +3,18 @@ package com.mangareader.prototype.model;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 /**
  * This class represents search parameters for advanced manga searches.
  * It includes filters for genres, status, and pagination.
+ *
+ * equals/hashCode compare the canonical form (see canonicalKey()), so two
+ * params that produce the same search are equal and can key a cache.
  */
 public class SearchParams {
     private String query;
@@ -27,6 +34,23 @@ public class SearchParams {
         this.additionalParams = new HashMap<>();
     }
 
+    /**
+     * Independent copy, e.g. to hand to an asynchronous search while the UI
+     * keeps editing this one
+     */
+    public SearchParams copy() {
+        SearchParams copy = new SearchParams();
+        copy.query = query;
+        copy.includeNsfw = includeNsfw;
+        copy.includedGenres.addAll(includedGenres);
+        copy.excludedGenres.addAll(excludedGenres);
+        copy.status = status;
+        copy.page = page;
+        copy.limit = limit;
+        copy.additionalParams.putAll(additionalParams);
+        return copy;
+    }
+
     public String getQuery() {
         return query;
     }
@@ -117,6 +141,55 @@ public class SearchParams {
         additionalParams.remove(key);
     }
 
+    /**
+     * The search these params describe, in a stable text form: query trimmed,
+     * whitespace collapsed and lowercased, genres as sorted lowercase sets,
+     * blank status as none, additional params sorted by key
+     */
+    public String canonicalKey() {
+        return "q=" + normalize(query)
+                + "&in=" + sortedLowercase(includedGenres)
+                + "&ex=" + sortedLowercase(excludedGenres)
+                + "&status=" + normalize(status)
+                + "&page=" + page
+                + "&limit=" + limit
+                + "&nsfw=" + includeNsfw
+                + "&extra=" + new TreeMap<>(additionalParams);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static TreeSet<String> sortedLowercase(List<String> values) {
+        TreeSet<String> sorted = new TreeSet<>();
+        for (String value : values) {
+            sorted.add(normalize(value));
+        }
+        return sorted;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchParams)) {
+            return false;
+        }
+        return canonicalKey().equals(((SearchParams) o).canonicalKey());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(canonicalKey());
+    }
+
+    @Override
+    public String toString() {
+        return canonicalKey();
+    }
+
     public void clearParams() {
         query = null;
         includedGenres.clear();
@@ -119,6 +119,16 @@ public interface LibraryService {
      */
     double getReadingProgress(String mangaId);
 
+    /**
+     * Re-fetch metadata (title, description, authors, genres, cover) for every
+     * manga in the library, with one batch lookup per owning source, then save
+     * once. Local archives are skipped (their metadata is the files
+     * themselves). Reading status and progress are left untouched.
+     * 
+     * @return Number of library entries that were updated
+     */
+    int refreshLibraryMetadata();
+
     /**
      * Clear the entire library (for testing/reset purposes)
      */
@@ -15,6 +15,11 @@ public interface MangaService {
 
     List<String> getChapterPages(String mangaId, String chapterId);
 
+    /**
+     * Fresh page URLs for a chapter whose earlier URLs have expired
+     */
+    List<String> refreshChapterPages(String mangaId, String chapterId);
+
     Optional<Chapter> getChapter(String mangaId, String chapterId);
 
     void downloadChapter(Chapter chapter);
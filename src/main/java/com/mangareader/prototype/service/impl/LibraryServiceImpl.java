@@ -6,9 +6,11 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -19,6 +21,9 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.mangareader.prototype.model.Manga;
 import com.mangareader.prototype.service.LibraryService;
+import com.mangareader.prototype.source.MangaSource;
+import com.mangareader.prototype.source.impl.LocalArchiveSource;
+import com.mangareader.prototype.source.impl.SourceRegistry;
 
 /**
  * Implementation of LibraryService with JSON file storage
@@ -146,6 +151,65 @@ public class LibraryServiceImpl implements LibraryService {
         }
     }
 
+    @Override
+    public int refreshLibraryMetadata() {
+        if (library.isEmpty()) {
+            return 0;
+        }
+
+        Map<MangaSource, List<String>> idsBySource = new LinkedHashMap<>();
+        for (String mangaId : library.keySet()) {
+            if (LocalArchiveSource.isLocalId(mangaId)) {
+                continue;
+            }
+            idsBySource.computeIfAbsent(SourceRegistry.getInstance().getSourceFor(mangaId),
+                    source -> new ArrayList<>()).add(mangaId);
+        }
+
+        // One source failing must not keep the others from being refreshed
+        List<CompletableFuture<Map<String, Manga>>> batches = new ArrayList<>();
+        idsBySource.forEach((source, ids) -> batches.add(source.getMangaDetailsBatchAsync(ids)
+                .exceptionally(error -> {
+                    System.err.println("Metadata refresh failed for " + source.getName() + ": "
+                            + error.getMessage());
+                    return Map.of();
+                })));
+        Map<String, Manga> latest = new LinkedHashMap<>();
+        batches.forEach(batch -> latest.putAll(batch.join()));
+
+        int updated = 0;
+        for (Map.Entry<String, Manga> fetched : latest.entrySet()) {
+            LibraryEntry entry = library.get(fetched.getKey());
+            if (entry != null) {
+                applyMetadata(entry.getManga(), fetched.getValue());
+                updated++;
+            }
+        }
+
+        if (updated > 0) {
+            saveLibrary();
+        }
+        System.out.println("Refreshed metadata for " + updated + " of " + library.size() + " library manga");
+        return updated;
+    }
+
+    /**
+     * Copy source metadata onto a library manga. Status and lastUpdated are
+     * library state (reading status, sort order), so they are kept.
+     */
+    private void applyMetadata(Manga target, Manga source) {
+        target.setTitle(source.getTitle());
+        target.setDescription(source.getDescription());
+        target.setAuthor(source.getAuthor());
+        target.setArtist(source.getArtist());
+        target.setGenres(source.getGenres());
+        target.setLanguage(source.getLanguage());
+        target.setReadingFormat(source.getReadingFormat());
+        if (source.getCoverUrl() != null && !source.getCoverUrl().isEmpty()) {
+            target.setCoverUrl(source.getCoverUrl());
+        }
+    }
+
     @Override
     public void clearLibrary() {
         library.clear();
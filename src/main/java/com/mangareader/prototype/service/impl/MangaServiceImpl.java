@@ -17,14 +17,14 @@ import com.mangareader.prototype.model.Chapter;
 import com.mangareader.prototype.model.Manga;
 import com.mangareader.prototype.service.MangaService;
 import com.mangareader.prototype.source.MangaSource;
-import com.mangareader.prototype.source.impl.MangaDexSource;
+import com.mangareader.prototype.source.impl.SourceRegistry;
 
 public abstract class MangaServiceImpl implements MangaService {
     private final Map<String, Manga> library;
     private final ObjectMapper objectMapper;
     private final Path dataDir;
     private final Path libraryFile;
-    private final MangaSource mangaSource;
+    private final SourceRegistry sources;
 
     public MangaServiceImpl() {
         this.library = new ConcurrentHashMap<>();
@@ -35,7 +35,7 @@ public abstract class MangaServiceImpl implements MangaService {
         this.dataDir = Paths.get(System.getProperty("user.home"), ".houdoku");
         this.libraryFile = dataDir.resolve("library.json");
 
-        this.mangaSource = new MangaDexSource();
+        this.sources = SourceRegistry.getInstance();
 
         try {
             Files.createDirectories(dataDir);
@@ -45,6 +45,17 @@ public abstract class MangaServiceImpl implements MangaService {
         }
     }
 
+    protected MangaSource getMangaSource() {
+        return sources.getOnlineSource();
+    }
+
+    /**
+     * The source a manga id belongs to (see SourceRegistry.getSourceFor)
+     */
+    protected MangaSource getMangaSource(String mangaId) {
+        return sources.getSourceFor(mangaId);
+    }
+
     private void loadLibrary() throws IOException {
         if (Files.exists(libraryFile)) {
             List<Manga> mangaList = objectMapper.readValue(
@@ -60,14 +71,14 @@ public abstract class MangaServiceImpl implements MangaService {
 
     @Override
     public List<Manga> searchManga(String query) {
-        return mangaSource.search(query, false); // Pass false for includeNsfw by default
+        return getMangaSource().search(query, false); // Pass false for includeNsfw by default
     }
 
     @Override
     public Optional<Manga> getMangaById(String id) {
         Manga manga = library.get(id);
         if (manga == null) {
-            return mangaSource.getMangaDetails(id);
+            return getMangaSource(id).getMangaDetails(id);
         }
         return Optional.of(manga);
     }
@@ -78,7 +89,7 @@ public abstract class MangaServiceImpl implements MangaService {
         if (manga != null && !manga.getChapters().isEmpty()) {
             return manga.getChapters();
         }
-        return mangaSource.getChapters(mangaId);
+        return getMangaSource(mangaId).getChapters(mangaId);
     }
 
     @Override
@@ -89,9 +100,15 @@ public abstract class MangaServiceImpl implements MangaService {
                 .findFirst();
     }
 
+    @Override
+    public List<String> refreshChapterPages(String mangaId, String chapterId) {
+        return getMangaSource(mangaId).refreshChapterPages(mangaId, chapterId);
+    }
+
     @Override
     public void downloadChapter(Chapter chapter) {
-        List<String> pageUrls = mangaSource.getChapterPages(chapter.getMangaId(), chapter.getId());
+        List<String> pageUrls = getMangaSource(chapter.getMangaId()).getChapterPages(chapter.getMangaId(),
+                chapter.getId());
         Path chapterDir = dataDir.resolve("downloads")
                 .resolve(chapter.getMangaId())
                 .resolve(String.format("chapter_%s", chapter.getId()));
@@ -147,7 +164,7 @@ public abstract class MangaServiceImpl implements MangaService {
         if (manga != null) {
             return Optional.of(manga);
         }
-        return mangaSource.getMangaDetails(mangaId);
+        return getMangaSource(mangaId).getMangaDetails(mangaId);
     }
 
     @Override
@@ -156,6 +173,6 @@ public abstract class MangaServiceImpl implements MangaService {
         if (manga != null && manga.getCoverUrl() != null && !manga.getCoverUrl().isEmpty()) {
             return manga.getCoverUrl();
         }
-        return mangaSource.getCoverUrl(mangaId);
+        return getMangaSource(mangaId).getCoverUrl(mangaId);
     }
 }
\ No newline at end of file
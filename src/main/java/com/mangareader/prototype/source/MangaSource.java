@@ -1,7 +1,11 @@
 package com.mangareader.prototype.source;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import com.mangareader.prototype.model.Chapter;
 import com.mangareader.prototype.model.Manga;
@@ -35,9 +39,67 @@ public interface MangaSource {
 
     Optional<Manga> getMangaDetails(String mangaId);
 
+    /**
+     * Details for many manga at once, keyed by id. Ids the source does not
+     * know are simply missing from the map. The default asks one by one;
+     * sources with a bulk endpoint should override it.
+     */
+    default Map<String, Manga> getMangaDetailsBatch(Collection<String> mangaIds) {
+        Map<String, Manga> details = new LinkedHashMap<>();
+        for (String mangaId : mangaIds) {
+            getMangaDetails(mangaId).ifPresent(manga -> details.put(mangaId, manga));
+        }
+        return details;
+    }
+
     List<Chapter> getChapters(String mangaId);
 
     List<String> getChapterPages(String mangaId, String chapterId);
 
+    /**
+     * Page URLs for a chapter, bypassing anything the source cached; used
+     * when the previously returned URLs stopped working. The default simply
+     * asks again.
+     */
+    default List<String> refreshChapterPages(String mangaId, String chapterId) {
+        return getChapterPages(mangaId, chapterId);
+    }
+
     String getCoverUrl(String mangaId);
+
+    // Asynchronous variants. The defaults just run the blocking call on the
+    // common pool; network-backed sources should override them with
+    // non-blocking implementations that also honour cancel().
+
+    default CompletableFuture<List<Manga>> searchAsync(String query, boolean includeNsfw) {
+        return CompletableFuture.supplyAsync(() -> search(query, includeNsfw));
+    }
+
+    default CompletableFuture<SearchResult> advancedSearchAsync(SearchParams params) {
+        return CompletableFuture.supplyAsync(() -> advancedSearch(params));
+    }
+
+    default CompletableFuture<List<String>> getAvailableGenresAsync() {
+        return CompletableFuture.supplyAsync(this::getAvailableGenres);
+    }
+
+    default CompletableFuture<Optional<Manga>> getMangaDetailsAsync(String mangaId) {
+        return CompletableFuture.supplyAsync(() -> getMangaDetails(mangaId));
+    }
+
+    default CompletableFuture<Map<String, Manga>> getMangaDetailsBatchAsync(Collection<String> mangaIds) {
+        return CompletableFuture.supplyAsync(() -> getMangaDetailsBatch(mangaIds));
+    }
+
+    default CompletableFuture<List<Chapter>> getChaptersAsync(String mangaId) {
+        return CompletableFuture.supplyAsync(() -> getChapters(mangaId));
+    }
+
+    default CompletableFuture<List<String>> getChapterPagesAsync(String mangaId, String chapterId) {
+        return CompletableFuture.supplyAsync(() -> getChapterPages(mangaId, chapterId));
+    }
+
+    default CompletableFuture<String> getCoverUrlAsync(String mangaId) {
+        return CompletableFuture.supplyAsync(() -> getCoverUrl(mangaId));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,270 @@
+package com.mangareader.prototype.source;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import com.mangareader.prototype.model.Manga;
+import com.mangareader.prototype.model.SearchParams;
+import com.mangareader.prototype.model.SearchResult;
+
+/**
+ * Runs one search against several sources in parallel and merges the answers.
+ *
+ * Every source gets the same SearchParams and its own deadline; a source that
+ * misses it is cancelled (which aborts its HTTP request) and left out. Each
+ * time a source answers, the listener receives a new merged snapshot, so the
+ * UI can show the fast sources' results without waiting for the slow ones.
+ *
+ * Merging keeps the order of the source list, then each source's own order.
+ * Titles are compared normalized (case, accents, punctuation and whitespace
+ * ignored); the first source to list a title wins.
+ */
+public class SearchAggregator {
+    public static final Duration DEFAULT_DEADLINE = Duration.ofSeconds(8);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final List<MangaSource> sources;
+    private final Duration deadline;
+
+    public SearchAggregator(List<MangaSource> sources) {
+        this(sources, DEFAULT_DEADLINE);
+    }
+
+    /**
+     * @param sources  the enabled sources, in the order their results should
+     *                 appear
+     * @param deadline how long each source gets to answer
+     */
+    public SearchAggregator(List<MangaSource> sources, Duration deadline) {
+        this.sources = List.copyOf(sources);
+        this.deadline = deadline;
+    }
+
+    public List<MangaSource> getSources() {
+        return sources;
+    }
+
+    /**
+     * Search every source. The listener is called (on whichever thread the
+     * source answered on) after each source finishes, succeeds or not. Calls
+     * never overlap and come in order, each snapshot at least as complete as
+     * the one before, so the listener should only hand the snapshot off (to
+     * the FX thread, for instance). The returned future completes with the
+     * final snapshot once all are done. Cancelling it cancels every source's
+     * search.
+     */
+    public CompletableFuture<Snapshot> search(SearchParams params, Consumer<Snapshot> listener) {
+        CompletableFuture<Snapshot> result = new CompletableFuture<>();
+        Merger merger = new Merger();
+        List<CompletableFuture<SearchResult>> searches = new ArrayList<>();
+
+        for (MangaSource source : sources) {
+            long start = System.nanoTime();
+            CompletableFuture<SearchResult> search;
+            try {
+                search = source.advancedSearchAsync(params);
+            } catch (RuntimeException e) {
+                search = CompletableFuture.failedFuture(e);
+            }
+            searches.add(search);
+
+            CompletableFuture<SearchResult> pending = search;
+            CompletableFuture.delayedExecutor(deadline.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+                if (!result.isDone() && pending.cancel(true)) {
+                    System.err.println("Search on " + source.getName() + " missed its "
+                            + deadline.toMillis() + " ms deadline");
+                }
+            });
+
+            search.whenComplete((sourceResult, error) -> {
+                if (result.isDone()) {
+                    return;
+                }
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                if (error == null) {
+                    System.out.println("Search on " + source.getName() + " answered in " + millis + " ms");
+                } else if (!pending.isCancelled()) {
+                    System.err.println("Search on " + source.getName() + " failed: " + error.getMessage());
+                }
+                Snapshot snapshot = merger.answer(source, error == null ? sourceResult : null, listener);
+                if (snapshot.isComplete()) {
+                    result.complete(snapshot);
+                }
+            });
+        }
+        if (sources.isEmpty()) {
+            result.complete(merger.snapshot());
+        }
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                searches.forEach(search -> search.cancel(true));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Lowercase, without accents, punctuation or whitespace, so "Kaguya-sama:
+     * Love is War" and "kaguya sama love is war" compare equal
+     */
+    public static String normalizeTitle(String title) {
+        if (title == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(title, Normalizer.Form.NFKD);
+        String plain = DIACRITICS.matcher(decomposed).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(plain.toLowerCase()).replaceAll("");
+    }
+
+    /**
+     * Collects per-source answers and rebuilds the merged list from them
+     */
+    private final class Merger {
+        private final Map<MangaSource, SearchResult> answers = new HashMap<>();
+        private final Set<MangaSource> failed = new HashSet<>();
+
+        /**
+         * Record a source's answer (null if it failed) and hand the new
+         * snapshot to the listener while still holding the lock, so two
+         * sources finishing together cannot deliver their snapshots out of
+         * order
+         */
+        synchronized Snapshot answer(MangaSource source, SearchResult sourceResult, Consumer<Snapshot> listener) {
+            if (sourceResult != null) {
+                answers.put(source, sourceResult);
+            } else {
+                failed.add(source);
+            }
+            Snapshot snapshot = snapshot();
+            try {
+                listener.accept(snapshot);
+            } catch (RuntimeException e) {
+                System.err.println("Search listener failed: " + e.getMessage());
+            }
+            return snapshot;
+        }
+
+        synchronized Snapshot snapshot() {
+            Map<String, Manga> merged = new LinkedHashMap<>();
+            Map<String, MangaSource> origins = new HashMap<>();
+            List<String> failedNames = new ArrayList<>();
+            int totalResults = 0;
+            int totalPages = 1;
+            boolean hasNextPage = false;
+
+            for (MangaSource source : sources) {
+                SearchResult answer = answers.get(source);
+                if (answer == null) {
+                    if (failed.contains(source)) {
+                        failedNames.add(source.getName());
+                    }
+                    continue;
+                }
+                totalResults += answer.getTotalResults();
+                totalPages = Math.max(totalPages, answer.getTotalPages());
+                hasNextPage |= answer.hasNextPage();
+                for (Manga manga : answer.getResults()) {
+                    String key = normalizeTitle(manga.getTitle());
+                    if (key.isEmpty()) {
+                        key = source.getId() + ":" + manga.getId();
+                    }
+                    if (merged.putIfAbsent(key, manga) == null) {
+                        origins.putIfAbsent(manga.getId(), source);
+                    }
+                }
+            }
+
+            int answered = answers.size() + failed.size();
+            return new Snapshot(new ArrayList<>(merged.values()), origins, totalResults, totalPages,
+                    hasNextPage, answers.size(), failedNames, answered == sources.size());
+        }
+    }
+
+    /**
+     * The merged results as of one moment
+     */
+    public static final class Snapshot {
+        private final List<Manga> results;
+        private final Map<String, MangaSource> origins;
+        private final int totalResults;
+        private final int totalPages;
+        private final boolean hasNextPage;
+        private final int sourcesAnswered;
+        private final List<String> failedSources;
+        private final boolean complete;
+
+        Snapshot(List<Manga> results, Map<String, MangaSource> origins, int totalResults, int totalPages,
+                boolean hasNextPage, int sourcesAnswered, List<String> failedSources, boolean complete) {
+            this.results = Collections.unmodifiableList(results);
+            this.origins = Collections.unmodifiableMap(origins);
+            this.totalResults = totalResults;
+            this.totalPages = totalPages;
+            this.hasNextPage = hasNextPage;
+            this.sourcesAnswered = sourcesAnswered;
+            this.failedSources = List.copyOf(failedSources);
+            this.complete = complete;
+        }
+
+        /**
+         * Merged, de-duplicated results
+         */
+        public List<Manga> getResults() {
+            return results;
+        }
+
+        /**
+         * The source a result came from, for loading its details
+         */
+        public MangaSource getSource(Manga manga) {
+            return origins.get(manga.getId());
+        }
+
+        /**
+         * Sum of the totals the sources reported (before de-duplication)
+         */
+        public int getTotalResults() {
+            return totalResults;
+        }
+
+        public int getTotalPages() {
+            return totalPages;
+        }
+
+        public boolean hasNextPage() {
+            return hasNextPage;
+        }
+
+        public int getSourcesAnswered() {
+            return sourcesAnswered;
+        }
+
+        /**
+         * Sources that failed or missed the deadline
+         */
+        public List<String> getFailedSources() {
+            return failedSources;
+        }
+
+        /**
+         * True once every source has answered, failed or timed out
+         */
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+}
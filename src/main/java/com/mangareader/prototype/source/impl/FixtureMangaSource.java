@@ -0,0 +1,366 @@
+package com.mangareader.prototype.source.impl;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mangareader.prototype.model.Chapter;
+import com.mangareader.prototype.model.Manga;
+import com.mangareader.prototype.model.SearchParams;
+import com.mangareader.prototype.model.SearchResult;
+import com.mangareader.prototype.source.MangaSource;
+import com.mangareader.prototype.util.HttpClientManager;
+import com.mangareader.prototype.util.ImageCache;
+import com.mangareader.prototype.util.NetworkProfile;
+import com.mangareader.prototype.util.RateLimiter;
+
+/**
+ * MangaSource backed by recorded fixtures in a local directory, for
+ * reproducible benchmarks and offline testing.
+ *
+ * - REPLAY: every call is answered from the fixture files; a call with no
+ * fixture logs a warning and returns an empty result
+ * - RECORD: every call goes to the delegate source (normally MangaDexSource)
+ * and its result is written to the fixtures, together with the page and
+ * cover images it refers to
+ *
+ * Layout: one JSON file per call under <dir>/<kind>/<hash of the call>.json
+ * (search, advanced-search, details, chapters, pages, cover, genres,
+ * statuses), and image bytes under <dir>/images. Image URLs are stored
+ * relative to the directory and handed out as file: URLs, so a fixture set
+ * can be copied between machines.
+ *
+ * Replayed responses and images are delayed according to a NetworkProfile
+ * (latency plus bandwidth), so load times resemble a real network.
+ *
+ * Enabled for the whole app with -Dmangareader.fixtures=<dir> (see
+ * fromSystemProperties).
+ */
+public class FixtureMangaSource implements MangaSource {
+    public static final String FIXTURES_PROPERTY = "mangareader.fixtures";
+    public static final String MODE_PROPERTY = "mangareader.fixtures.mode";
+    private static final String IMAGES_DIR = "images";
+
+    public enum Mode {
+        REPLAY, RECORD
+    }
+
+    private final Path fixtureDir;
+    private final Mode mode;
+    private final MangaSource delegate;
+    private final NetworkProfile network;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Replay fixtures without any simulated delay
+     */
+    public FixtureMangaSource(Path fixtureDir) {
+        this(fixtureDir, Mode.REPLAY, null, NetworkProfile.UNLIMITED);
+    }
+
+    /**
+     * @param delegate the live source; required for RECORD, unused for REPLAY
+     * @param network  simulated link for replayed responses and images
+     */
+    public FixtureMangaSource(Path fixtureDir, Mode mode, MangaSource delegate, NetworkProfile network) {
+        if (mode == Mode.RECORD && delegate == null) {
+            throw new IllegalArgumentException("Recording fixtures needs a live source to record from");
+        }
+        this.fixtureDir = fixtureDir;
+        this.mode = mode;
+        this.delegate = delegate;
+        this.network = network;
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+                .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+                .configure(SerializationFeature.INDENT_OUTPUT, true)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        // Replayed page images are read by ImageCache, which applies the same link
+        ImageCache.getInstance().setLocalNetworkProfile(mode == Mode.REPLAY ? network : NetworkProfile.UNLIMITED);
+        System.out.println("Fixture source (" + mode + ") at " + fixtureDir.toAbsolutePath() + ", network: "
+                + network);
+    }
+
+    /**
+     * The source selected by -Dmangareader.fixtures=<dir>, with
+     * -Dmangareader.fixtures.mode=record|replay (default replay) and the
+     * NetworkProfile properties; null if fixtures are not enabled.
+     */
+    public static FixtureMangaSource fromSystemProperties(MangaSource delegate) {
+        String dir = System.getProperty(FIXTURES_PROPERTY);
+        if (dir == null || dir.isBlank()) {
+            return null;
+        }
+        Mode mode = "record".equalsIgnoreCase(System.getProperty(MODE_PROPERTY)) ? Mode.RECORD : Mode.REPLAY;
+        return new FixtureMangaSource(Paths.get(dir), mode, delegate, NetworkProfile.fromSystemProperties());
+    }
+
+    @Override
+    public String getName() {
+        return delegate != null ? delegate.getName() + " (fixtures)" : "Fixtures";
+    }
+
+    /**
+     * Distinct from the delegate's id, so caches keyed by source never mix
+     * replayed and live results
+     */
+    @Override
+    public String getId() {
+        return delegate != null ? "fixtures-" + delegate.getId() : "fixtures";
+    }
+
+    @Override
+    public List<Manga> search(String query, boolean includeNsfw) {
+        List<Manga> results = respond("search", query + "|" + includeNsfw, new TypeReference<List<Manga>>() {
+        }, () -> captureCovers(delegate.search(query, includeNsfw)), Collections.emptyList());
+        return localizeCovers(results);
+    }
+
+    @Override
+    public SearchResult advancedSearch(SearchParams params) {
+        SearchResult result = respond("advanced-search", keyOf(params), new TypeReference<SearchResult>() {
+        }, () -> {
+            SearchResult live = delegate.advancedSearch(params);
+            captureCovers(live.getResults());
+            return live;
+        }, null);
+        if (result == null) {
+            return new SearchResult();
+        }
+        localizeCovers(result.getResults());
+        return result;
+    }
+
+    @Override
+    public List<String> getAvailableGenres() {
+        return respond("genres", "", new TypeReference<List<String>>() {
+        }, () -> delegate.getAvailableGenres(), Collections.emptyList());
+    }
+
+    @Override
+    public List<String> getAvailableStatuses() {
+        return respond("statuses", "", new TypeReference<List<String>>() {
+        }, () -> delegate.getAvailableStatuses(), Collections.emptyList());
+    }
+
+    @Override
+    public Optional<Manga> getMangaDetails(String mangaId) {
+        Manga manga = respond("details", mangaId, new TypeReference<Manga>() {
+        }, () -> {
+            Manga live = delegate.getMangaDetails(mangaId).orElse(null);
+            if (live != null) {
+                captureCovers(Collections.singletonList(live));
+            }
+            return live;
+        }, null);
+        if (manga == null) {
+            return Optional.empty();
+        }
+        localizeCovers(Collections.singletonList(manga));
+        return Optional.of(manga);
+    }
+
+    @Override
+    public List<Chapter> getChapters(String mangaId) {
+        return respond("chapters", mangaId, new TypeReference<List<Chapter>>() {
+        }, () -> delegate.getChapters(mangaId), Collections.emptyList());
+    }
+
+    @Override
+    public List<String> getChapterPages(String mangaId, String chapterId) {
+        List<String> pages = respond("pages", chapterId, new TypeReference<List<String>>() {
+        }, () -> {
+            List<String> stored = new ArrayList<>();
+            for (String pageUrl : delegate.getChapterPages(mangaId, chapterId)) {
+                stored.add(captureImage(pageUrl));
+            }
+            return stored;
+        }, Collections.emptyList());
+
+        List<String> urls = new ArrayList<>();
+        for (String page : pages) {
+            urls.add(resolveImage(page));
+        }
+        return urls;
+    }
+
+    @Override
+    public String getCoverUrl(String mangaId) {
+        String stored = respond("cover", mangaId, new TypeReference<String>() {
+        }, () -> captureImage(delegate.getCoverUrl(mangaId)), null);
+        return resolveImage(stored);
+    }
+
+    /**
+     * Replay: read the fixture for (kind, key), or return the fallback if
+     * there is none. Record: ask the live source and store what it returned.
+     */
+    private <T> T respond(String kind, String key, TypeReference<T> type, Supplier<T> live, T fallback) {
+        Path file = fixtureFile(kind, key);
+        if (mode == Mode.RECORD) {
+            T value = live.get();
+            if (value != null) {
+                write(file, key, value);
+            }
+            return value != null ? value : fallback;
+        }
+
+        if (!Files.exists(file)) {
+            System.err.println("No fixture for " + kind + " '" + key + "' (" + file + ")");
+            return fallback;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            network.simulate(bytes.length);
+            JsonNode fixture = objectMapper.readTree(bytes);
+            JavaType javaType = objectMapper.getTypeFactory().constructType(type);
+            return objectMapper.readerFor(javaType).readValue(fixture.get("response"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        } catch (IOException e) {
+            System.err.println("Error reading fixture " + file + ": " + e.getMessage());
+            return fallback;
+        }
+    }
+
+    private void write(Path file, String key, Object value) {
+        try {
+            Files.createDirectories(file.getParent());
+            ObjectNode fixture = objectMapper.createObjectNode();
+            fixture.put("key", key);
+            fixture.set("response", objectMapper.valueToTree(value));
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(), fixture);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error writing fixture " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Record: download the image into the fixtures and return its relative
+     * path; on failure the original URL is kept.
+     */
+    private String captureImage(String url) {
+        if (url == null || url.isEmpty() || !url.startsWith("http")) {
+            return url;
+        }
+        String extension = url.substring(url.lastIndexOf('/') + 1).contains(".")
+                ? url.substring(url.lastIndexOf('.'))
+                : ".img";
+        String relative = IMAGES_DIR + "/" + hash(url) + extension;
+        Path target = fixtureDir.resolve(relative);
+        if (Files.exists(target)) {
+            return relative;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            RateLimiter.getInstance().acquire(url);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(HttpClientManager.REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            HttpResponse<byte[]> response = HttpClientManager.getInstance()
+                    .sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .get();
+            if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                System.err.println("Could not record image (status " + response.statusCode() + "): " + url);
+                return url;
+            }
+            Files.write(target, response.body());
+            return relative;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return url;
+        } catch (Exception e) {
+            System.err.println("Could not record image " + url + ": " + e.getMessage());
+            return url;
+        }
+    }
+
+    /**
+     * Stored image reference (relative path or remote URL) to a usable URL
+     */
+    private String resolveImage(String stored) {
+        if (stored == null || !stored.startsWith(IMAGES_DIR + "/")) {
+            return stored;
+        }
+        return fixtureDir.resolve(stored).toAbsolutePath().toUri().toString();
+    }
+
+    /**
+     * Record: download each cover so the stored fixture refers to the local
+     * copy
+     */
+    private List<Manga> captureCovers(List<Manga> mangas) {
+        if (mangas != null) {
+            for (Manga manga : mangas) {
+                manga.setCoverUrl(captureImage(manga.getCoverUrl()));
+            }
+        }
+        return mangas;
+    }
+
+    /**
+     * Hand out locally stored covers as file: URLs
+     */
+    private List<Manga> localizeCovers(List<Manga> mangas) {
+        if (mangas == null) {
+            return Collections.emptyList();
+        }
+        for (Manga manga : mangas) {
+            manga.setCoverUrl(resolveImage(manga.getCoverUrl()));
+        }
+        return mangas;
+    }
+
+    private String keyOf(SearchParams params) {
+        try {
+            return objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT).writeValueAsString(params);
+        } catch (IOException e) {
+            return String.valueOf(params);
+        }
+    }
+
+    private Path fixtureFile(String kind, String key) {
+        return fixtureDir.resolve(kind).resolve(hash(kind + ":" + key) + ".json");
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            byte[] digest = md.digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(value.hashCode());
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.mangareader.prototype.source.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.mangareader.prototype.model.Chapter;
+import com.mangareader.prototype.model.Manga;
+import com.mangareader.prototype.model.SearchParams;
+import com.mangareader.prototype.model.SearchResult;
+import com.mangareader.prototype.source.MangaSource;
+import com.mangareader.prototype.util.ArchiveReader;
+
+/**
+ * MangaSource for a local directory of CBZ/ZIP archives and image folders.
+ *
+ * Layout under the root directory:
+ * - every subdirectory is a series; inside it, each CBZ/ZIP archive and each
+ * folder of images is a chapter, and loose images form one chapter of
+ * their own
+ * - an archive directly in the root is a series with a single chapter
+ *
+ * The tree is scanned once (rescan() picks up changes). Archive pages are
+ * jar: URIs read in place by ArchiveReader, loose images are file: URIs;
+ * ImageCache loads both. Ids start with "local:" followed by the path
+ * relative to the root, so they never collide with other sources.
+ *
+ * Enabled with -Dmangareader.archives=<dir> (see fromSystemProperties, which
+ * shares one instance across the app).
+ */
+public class LocalArchiveSource implements MangaSource {
+    public static final String ARCHIVES_PROPERTY = "mangareader.archives";
+    public static final String ID_PREFIX = "local:";
+
+    private static final Pattern NUMBER = Pattern.compile("(\\d+(?:\\.\\d+)?)");
+
+    private final Path root;
+    private final ArchiveReader archiveReader = ArchiveReader.getInstance();
+    private volatile Map<String, Series> index;
+
+    public LocalArchiveSource(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    /**
+     * The source for -Dmangareader.archives, or null when it is not set.
+     * Every caller gets the same instance, so the tree is scanned and each
+     * cover's archive opened only once per run.
+     */
+    public static LocalArchiveSource fromSystemProperties() {
+        return SystemPropertiesHolder.instance;
+    }
+
+    private static LocalArchiveSource createFromSystemProperties() {
+        String dir = System.getProperty(ARCHIVES_PROPERTY);
+        if (dir == null || dir.isBlank()) {
+            return null;
+        }
+        Path root = Paths.get(dir);
+        if (!Files.isDirectory(root)) {
+            System.err.println("Archive directory does not exist: " + root.toAbsolutePath());
+            return null;
+        }
+        return new LocalArchiveSource(root);
+    }
+
+    // Created on first use (initialization-on-demand holder)
+    private static final class SystemPropertiesHolder {
+        private static final LocalArchiveSource instance = createFromSystemProperties();
+    }
+
+    public static boolean isLocalId(String id) {
+        return id != null && id.startsWith(ID_PREFIX);
+    }
+
+    @Override
+    public String getName() {
+        return "Local Archives";
+    }
+
+    @Override
+    public String getId() {
+        return "local";
+    }
+
+    /**
+     * Forget the index; the next call scans the directory tree again
+     */
+    public void rescan() {
+        index = null;
+    }
+
+    @Override
+    public List<Manga> search(String query, boolean includeNsfw) {
+        return matching(query).stream()
+                .map(this::toManga)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public SearchResult advancedSearch(SearchParams params) {
+        List<Series> matches = matching(params.getQuery());
+        int limit = Math.max(1, params.getLimit());
+        int from = Math.min(matches.size(), (params.getPage() - 1) * limit);
+        int to = Math.min(matches.size(), from + limit);
+
+        SearchResult result = new SearchResult();
+        // Only the page is turned into Manga: each one opens its cover's archive
+        result.setResults(matches.subList(from, to).stream()
+                .map(this::toManga)
+                .collect(Collectors.toList()));
+        result.setCurrentPage(params.getPage());
+        result.setTotalResults(matches.size());
+        result.setTotalPages((matches.size() + limit - 1) / limit);
+        return result;
+    }
+
+    @Override
+    public List<String> getAvailableGenres() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<String> getAvailableStatuses() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Optional<Manga> getMangaDetails(String mangaId) {
+        Series series = index().get(mangaId);
+        return series != null ? Optional.of(toManga(series)) : Optional.empty();
+    }
+
+    @Override
+    public List<Chapter> getChapters(String mangaId) {
+        Series series = index().get(mangaId);
+        if (series == null) {
+            return new ArrayList<>();
+        }
+        List<Chapter> chapters = new ArrayList<>();
+        for (ChapterEntry entry : series.chapters) {
+            Chapter chapter = new Chapter();
+            chapter.setId(entry.id);
+            chapter.setMangaId(mangaId);
+            chapter.setTitle(entry.title);
+            chapter.setNumber(entry.number);
+            chapter.setReadingFormat("normal");
+            chapter.setDownloaded(true);
+            chapter.setDownloadPath(entry.path.toString());
+            chapters.add(chapter);
+        }
+        return chapters;
+    }
+
+    @Override
+    public List<String> getChapterPages(String mangaId, String chapterId) {
+        Series series = index().get(mangaId);
+        if (series == null) {
+            return new ArrayList<>();
+        }
+        for (ChapterEntry entry : series.chapters) {
+            if (entry.id.equals(chapterId)) {
+                try {
+                    return pageUrls(entry);
+                } catch (IOException e) {
+                    System.err.println("Error reading chapter " + entry.path + ": " + e.getMessage());
+                    return new ArrayList<>();
+                }
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    @Override
+    public String getCoverUrl(String mangaId) {
+        Series series = index().get(mangaId);
+        return series != null ? coverUrl(series) : "";
+    }
+
+    private List<Series> matching(String query) {
+        String needle = query != null ? query.trim().toLowerCase(Locale.ROOT) : "";
+        return index().values().stream()
+                .filter(series -> needle.isEmpty() || series.title.toLowerCase(Locale.ROOT).contains(needle))
+                .collect(Collectors.toList());
+    }
+
+    private Map<String, Series> index() {
+        Map<String, Series> current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = scan();
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Map<String, Series> scan() {
+        long start = System.nanoTime();
+        List<Series> found = new ArrayList<>();
+        try (Stream<Path> children = Files.list(root)) {
+            for (Path child : sorted(children)) {
+                if (Files.isDirectory(child)) {
+                    Series series = scanSeries(child);
+                    if (!series.chapters.isEmpty()) {
+                        found.add(series);
+                    }
+                } else if (ArchiveReader.isArchive(child)) {
+                    Series series = new Series(idOf(child), stripExtension(child));
+                    series.chapters.add(new ChapterEntry(idOf(child), child, true, stripExtension(child), 1));
+                    found.add(series);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error scanning archive directory " + root + ": " + e.getMessage());
+        }
+
+        found.sort((a, b) -> ArchiveReader.compareNatural(a.title, b.title));
+        Map<String, Series> byId = new LinkedHashMap<>();
+        for (Series series : found) {
+            byId.put(series.id, series);
+        }
+        System.out.printf("Indexed %d local series in %d ms%n", byId.size(), (System.nanoTime() - start) / 1_000_000);
+        return Collections.unmodifiableMap(byId);
+    }
+
+    private Series scanSeries(Path dir) throws IOException {
+        Series series = new Series(idOf(dir), dir.getFileName().toString());
+        boolean hasLooseImages = false;
+        try (Stream<Path> children = Files.list(dir)) {
+            for (Path child : sorted(children)) {
+                String name = child.getFileName().toString();
+                if (name.startsWith(".")) {
+                    continue;
+                }
+                if (Files.isDirectory(child)) {
+                    if (containsImages(child)) {
+                        series.chapters.add(new ChapterEntry(idOf(child), child, false, name,
+                                chapterNumber(name, series.chapters.size() + 1)));
+                    }
+                } else if (ArchiveReader.isArchive(child)) {
+                    series.chapters.add(new ChapterEntry(idOf(child), child, true, stripExtension(child),
+                            chapterNumber(stripExtension(child), series.chapters.size() + 1)));
+                } else if (ArchiveReader.isImage(name)) {
+                    hasLooseImages = true;
+                }
+            }
+        }
+        series.chapters.sort(Comparator.comparingDouble((ChapterEntry chapter) -> chapter.number));
+        if (hasLooseImages) {
+            series.chapters.add(0, new ChapterEntry(idOf(dir), dir, false, series.title, 0));
+        }
+        return series;
+    }
+
+    private List<String> pageUrls(ChapterEntry entry) throws IOException {
+        List<String> urls = new ArrayList<>();
+        if (entry.archive) {
+            for (String name : archiveReader.listImages(entry.path)) {
+                urls.add(ArchiveReader.entryUri(entry.path, name));
+            }
+        } else {
+            try (Stream<Path> files = Files.list(entry.path)) {
+                for (Path file : sorted(files)) {
+                    String name = file.getFileName().toString();
+                    if (Files.isRegularFile(file) && ArchiveReader.isImage(name) && !name.startsWith(".")) {
+                        urls.add(file.toUri().toString());
+                    }
+                }
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * First page of the first chapter
+     */
+    private String coverUrl(Series series) {
+        String cover = series.coverUrl;
+        if (cover == null) {
+            List<String> pages = List.of();
+            try {
+                pages = pageUrls(series.chapters.get(0));
+            } catch (IOException e) {
+                System.err.println("Error reading cover for " + series.title + ": " + e.getMessage());
+            }
+            cover = pages.isEmpty() ? "" : pages.get(0);
+            series.coverUrl = cover;
+        }
+        return cover;
+    }
+
+    private Manga toManga(Series series) {
+        Manga manga = new Manga();
+        manga.setId(series.id);
+        manga.setTitle(series.title);
+        manga.setDescription(series.chapters.size() + " chapters in " + root.relativize(pathOf(series.id)));
+        manga.setStatus("");
+        manga.setLanguage("en");
+        manga.setReadingFormat("normal");
+        manga.setCoverUrl(coverUrl(series));
+        return manga;
+    }
+
+    private String idOf(Path path) {
+        return ID_PREFIX + root.relativize(path).toString().replace('\\', '/');
+    }
+
+    private Path pathOf(String id) {
+        return root.resolve(id.substring(ID_PREFIX.length()));
+    }
+
+    private static boolean containsImages(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.anyMatch(file -> ArchiveReader.isImage(file.getFileName().toString()));
+        }
+    }
+
+    private static List<Path> sorted(Stream<Path> paths) {
+        return paths.sorted((a, b) -> ArchiveReader.compareNatural(a.getFileName().toString(),
+                b.getFileName().toString())).collect(Collectors.toList());
+    }
+
+    private static String stripExtension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /**
+     * The last number in a chapter's name ("Vol 2 Ch 14.5" is 14.5), or its
+     * position when there is none
+     */
+    private static double chapterNumber(String name, int position) {
+        Matcher matcher = NUMBER.matcher(name);
+        String last = null;
+        while (matcher.find()) {
+            last = matcher.group(1);
+        }
+        return last != null ? Double.parseDouble(last) : position;
+    }
+
+    private static final class Series {
+        final String id;
+        final String title;
+        final List<ChapterEntry> chapters = new ArrayList<>();
+        volatile String coverUrl;
+
+        Series(String id, String title) {
+            this.id = id;
+            this.title = title;
+        }
+    }
+
+    private static final class ChapterEntry {
+        final String id;
+        final Path path;
+        final boolean archive;
+        final String title;
+        final double number;
+
+        ChapterEntry(String id, Path path, boolean archive, String title, double number) {
+            this.id = id;
+            this.path = path;
+            this.archive = archive;
+            this.title = title;
+            this.number = number;
+        }
+    }
+}
@@ -0,0 +1,537 @@
+package com.mangareader.prototype.source.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.mangareader.prototype.model.Chapter;
+import com.mangareader.prototype.model.Manga;
+
+/**
+ * Streaming parser for MangaDex API responses.
+ *
+ * Reads straight from the response InputStream with a Jackson JsonParser and
+ * builds Manga/Chapter objects as their JSON objects close, so a response is
+ * never held in memory as a String or a JsonNode tree. Fields are matched by
+ * name and anything unknown is skipped, so field order in the payload does not
+ * matter.
+ */
+class MangaDexJsonParser {
+    private final JsonFactory jsonFactory;
+    private final String coverBaseUrl;
+
+    MangaDexJsonParser(JsonFactory jsonFactory, String coverBaseUrl) {
+        this.jsonFactory = jsonFactory;
+        this.coverBaseUrl = coverBaseUrl;
+    }
+
+    /**
+     * Collection response ({"data": [manga...], "total": n}), e.g. /manga
+     */
+    ListResponse<Manga> parseMangaList(InputStream in) throws IOException {
+        return parseList(in, this::readManga);
+    }
+
+    /**
+     * Entity response ({"data": {manga}}), e.g. /manga/{id}
+     */
+    Manga parseMangaEntity(InputStream in) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            Manga manga = null;
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("data".equals(field) && value == JsonToken.START_OBJECT) {
+                    manga = readManga(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return manga;
+        }
+    }
+
+    /**
+     * Collection response of chapters, e.g. /manga/{id}/feed
+     */
+    ListResponse<Chapter> parseChapterList(InputStream in) throws IOException {
+        return parseList(in, this::readChapter);
+    }
+
+    /**
+     * Collection response of tags, i.e. /manga/tag
+     */
+    ListResponse<MangaDexTagCatalog.Tag> parseTagList(InputStream in) throws IOException {
+        return parseList(in, this::readTag);
+    }
+
+    /**
+     * /at-home/server/{chapterId} response
+     */
+    AtHomeManifest parseAtHome(InputStream in) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            AtHomeManifest manifest = new AtHomeManifest();
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "result":
+                        manifest.result = textOrNull(parser);
+                        break;
+                    case "baseUrl":
+                        manifest.baseUrl = textOrNull(parser);
+                        break;
+                    case "chapter":
+                        if (value == JsonToken.START_OBJECT) {
+                            readAtHomeChapter(parser, manifest);
+                        } else {
+                            parser.skipChildren();
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            return manifest;
+        }
+    }
+
+    private void readAtHomeChapter(JsonParser parser, AtHomeManifest manifest) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "hash":
+                    manifest.hash = textOrNull(parser);
+                    break;
+                case "data":
+                    manifest.data = readStringArray(parser);
+                    break;
+                case "dataSaver":
+                    manifest.dataSaver = readStringArray(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+    }
+
+    private <T> ListResponse<T> parseList(InputStream in, ElementReader<T> reader) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            List<T> items = new ArrayList<>();
+            int total = -1;
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        items.add(reader.read(parser));
+                    }
+                } else if ("total".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    total = parser.getIntValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new ListResponse<>(items, total);
+        }
+    }
+
+    /**
+     * Reads one manga object; the parser is positioned on its START_OBJECT.
+     */
+    private Manga readManga(JsonParser parser) throws IOException {
+        Manga manga = new Manga();
+        manga.setTitle("");
+        manga.setDescription("");
+        manga.setStatus("");
+        manga.setLanguage("en");
+        List<String> genres = new ArrayList<>();
+        List<Relationship> relationships = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("id".equals(field)) {
+                manga.setId(textOrNull(parser));
+            } else if ("attributes".equals(field) && value == JsonToken.START_OBJECT) {
+                readMangaAttributes(parser, manga, genres);
+            } else if ("relationships".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    relationships.add(readRelationship(parser));
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        manga.setGenres(genres);
+        // Vertical scroll series are tagged "Long Strip" on MangaDex
+        manga.setReadingFormat(genres.contains("Long Strip") ? "webtoon" : "normal");
+        applyRelationships(manga, relationships);
+        return manga;
+    }
+
+    private void readMangaAttributes(JsonParser parser, Manga manga, List<String> genres) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "title":
+                    manga.setTitle(readEnglish(parser));
+                    break;
+                case "description":
+                    manga.setDescription(readEnglish(parser));
+                    break;
+                case "status":
+                    manga.setStatus(value == JsonToken.VALUE_NULL ? "" : parser.getText());
+                    break;
+                case "originalLanguage":
+                    if (value != JsonToken.VALUE_NULL) {
+                        manga.setLanguage(parser.getText());
+                    }
+                    break;
+                case "updatedAt":
+                    if (value == JsonToken.VALUE_STRING && parser.getTextLength() > 0) {
+                        manga.setLastUpdated(readDateTime(parser));
+                    }
+                    break;
+                case "tags":
+                    if (value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            String tagName = readTagName(parser);
+                            if (tagName != null) {
+                                genres.add(tagName);
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+    }
+
+    private String readTagName(JsonParser parser) throws IOException {
+        String name = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("attributes".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String attr = parser.getCurrentName();
+                    JsonToken attrValue = parser.nextToken();
+                    if ("name".equals(attr) && attrValue == JsonToken.START_OBJECT) {
+                        name = readLocalized(parser, "en");
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Reads one tag object (id, English name and group); the parser is
+     * positioned on its START_OBJECT.
+     */
+    private MangaDexTagCatalog.Tag readTag(JsonParser parser) throws IOException {
+        String id = null;
+        String name = null;
+        String group = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("id".equals(field)) {
+                id = textOrNull(parser);
+            } else if ("attributes".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String attr = parser.getCurrentName();
+                    JsonToken attrValue = parser.nextToken();
+                    if ("name".equals(attr) && attrValue == JsonToken.START_OBJECT) {
+                        name = readLocalized(parser, "en");
+                    } else if ("group".equals(attr)) {
+                        group = textOrNull(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new MangaDexTagCatalog.Tag(id, name, group);
+    }
+
+    private Relationship readRelationship(JsonParser parser) throws IOException {
+        Relationship rel = new Relationship();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("id".equals(field)) {
+                rel.id = textOrNull(parser);
+            } else if ("type".equals(field)) {
+                rel.type = textOrNull(parser);
+            } else if ("attributes".equals(field) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String attr = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("name".equals(attr)) {
+                        rel.name = textOrNull(parser);
+                    } else if ("fileName".equals(attr)) {
+                        rel.fileName = textOrNull(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return rel;
+    }
+
+    private void applyRelationships(Manga manga, List<Relationship> relationships) {
+        StringBuilder authors = new StringBuilder();
+        StringBuilder artists = new StringBuilder();
+        String coverUrl = null;
+        for (Relationship rel : relationships) {
+            if ("author".equals(rel.type) && rel.name != null) {
+                if (authors.length() > 0)
+                    authors.append(", ");
+                authors.append(rel.name);
+            } else if ("artist".equals(rel.type) && rel.name != null) {
+                if (artists.length() > 0)
+                    artists.append(", ");
+                artists.append(rel.name);
+            } else if ("cover_art".equals(rel.type)) {
+                if (rel.fileName != null) {
+                    coverUrl = String.format("%s/%s/%s", coverBaseUrl, manga.getId(), rel.fileName);
+                } else if (coverUrl == null && rel.id != null) {
+                    coverUrl = String.format("%s/%s/%s.jpg", coverBaseUrl, manga.getId(), rel.id);
+                }
+            }
+        }
+        manga.setAuthor(authors.toString());
+        manga.setArtist(artists.toString());
+        manga.setCoverUrl(coverUrl != null ? coverUrl : "");
+    }
+
+    /**
+     * Reads one chapter object; the parser is positioned on its START_OBJECT.
+     */
+    private Chapter readChapter(JsonParser parser) throws IOException {
+        Chapter chapter = new Chapter();
+        chapter.setTitle(""); // Default empty title
+        chapter.setNumber(0.0); // Default to 0
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("id".equals(field)) {
+                chapter.setId(textOrNull(parser));
+            } else if ("attributes".equals(field) && value == JsonToken.START_OBJECT) {
+                readChapterAttributes(parser, chapter);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return chapter;
+    }
+
+    private void readChapterAttributes(JsonParser parser, Chapter chapter) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == null || !value.isScalarValue() || value == JsonToken.VALUE_NULL) {
+                parser.skipChildren();
+                continue;
+            }
+            // Only the fields kept are turned into Strings
+            switch (field) {
+                case "mangaId":
+                    chapter.setMangaId(parser.getText());
+                    break;
+                case "title":
+                    chapter.setTitle(parser.getText());
+                    break;
+                case "chapter":
+                    try {
+                        chapter.setNumber(Double.parseDouble(parser.getText()));
+                    } catch (NumberFormatException e) {
+                        System.err.println("Error parsing chapter number: " + e.getMessage());
+                    }
+                    break;
+                case "volume":
+                    chapter.setVolume(parser.getText());
+                    break;
+                case "publishAt":
+                    try {
+                        chapter.setReleaseDate(readDateTime(parser));
+                    } catch (Exception e) {
+                        System.err.println("Error parsing publish date: " + e.getMessage());
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Reads an ISO date-time as its local date and time, ignoring any offset
+     * like LocalDateTime.parse(text, ISO_DATE_TIME). MangaDex timestamps
+     * ("2024-01-01T00:00:00+00:00") are read straight from the parser's
+     * buffer; anything else, e.g. with fractional seconds, goes through the
+     * formatter.
+     */
+    private static LocalDateTime readDateTime(JsonParser parser) throws IOException {
+        char[] chars = parser.getTextCharacters();
+        int start = parser.getTextOffset();
+        int length = parser.getTextLength();
+        if (length >= 19 && (length == 19 || isOffsetStart(chars[start + 19]))
+                && chars[start + 4] == '-' && chars[start + 7] == '-' && chars[start + 10] == 'T'
+                && chars[start + 13] == ':' && chars[start + 16] == ':') {
+            int year = digits(chars, start, 4);
+            int month = digits(chars, start + 5, 2);
+            int day = digits(chars, start + 8, 2);
+            int hour = digits(chars, start + 11, 2);
+            int minute = digits(chars, start + 14, 2);
+            int second = digits(chars, start + 17, 2);
+            if (year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0) {
+                return LocalDateTime.of(year, month, day, hour, minute, second);
+            }
+        }
+        return LocalDateTime.parse(parser.getText(), DateTimeFormatter.ISO_DATE_TIME);
+    }
+
+    private static boolean isOffsetStart(char c) {
+        return c == '+' || c == '-' || c == 'Z';
+    }
+
+    /**
+     * Value of `count` decimal digits, or -1 if one of them is not a digit
+     */
+    private static int digits(char[] chars, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = chars[i];
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Localized strings ({"en": "...", "ja": "..."}) only keep the English
+     * value; anything else reads as "" like the old JsonNode.path().asText().
+     */
+    private String readEnglish(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return "";
+        }
+        String value = readLocalized(parser, "en");
+        return value != null ? value : "";
+    }
+
+    private String readLocalized(JsonParser parser, String language) throws IOException {
+        String value = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (language.equals(field)) {
+                value = textOrNull(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return value;
+    }
+
+    private List<String> readStringArray(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return Collections.emptyList();
+        }
+        List<String> values = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String text = textOrNull(parser);
+            if (text != null) {
+                values.add(text);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Text of the current scalar token, or null for null/structured values.
+     */
+    private static String textOrNull(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        return token != null && token.isScalarValue() && token != JsonToken.VALUE_NULL ? parser.getText() : null;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Unexpected JSON token " + actual + ", expected " + expected);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ElementReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    private static final class Relationship {
+        private String id;
+        private String type;
+        private String name;
+        private String fileName;
+    }
+
+    /**
+     * Items of a collection response plus the "total" the API reported
+     * (-1 when the response has none).
+     */
+    static final class ListResponse<T> {
+        final List<T> items;
+        final int total;
+
+        ListResponse(List<T> items, int total) {
+            this.items = items;
+            this.total = total;
+        }
+    }
+
+    /**
+     * Parsed /at-home/server response: the node base URL plus the chapter hash
+     * and page file names for both quality levels.
+     */
+    static final class AtHomeManifest {
+        String result;
+        String baseUrl;
+        String hash;
+        List<String> data = Collections.emptyList();
+        List<String> dataSaver = Collections.emptyList();
+    }
+}
@@ -1,38 +1,119 @@
 package com.mangareader.prototype.source.impl;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
-import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.core5.http.io.HttpClientResponseHandler;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
-
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.mangareader.prototype.model.Chapter;
 import com.mangareader.prototype.model.Manga;
 import com.mangareader.prototype.model.SearchParams;
 import com.mangareader.prototype.model.SearchResult;
 import com.mangareader.prototype.source.MangaSource;
-
+import com.mangareader.prototype.util.CircuitBreaker;
+import com.mangareader.prototype.util.HttpClientManager;
+import com.mangareader.prototype.util.HttpResponseCache;
+import com.mangareader.prototype.util.HttpStatusException;
+import com.mangareader.prototype.util.ImageQualityManager;
+import com.mangareader.prototype.util.ImageQualityManager.ImageQuality;
+import com.mangareader.prototype.util.RateLimiter;
+import com.mangareader.prototype.util.RetryPolicy;
+import com.mangareader.prototype.util.SingleFlight;
+
+/**
+ * MangaDex API source.
+ *
+ * Every call is implemented once, asynchronously, on the shared
+ * HttpClientManager client; the blocking MangaSource methods simply wait on
+ * the async ones. Cancelling a returned future aborts the in-flight request.
+ *
+ * Transient failures (connection errors, timeouts, 429, 5xx) are retried with
+ * backoff, repeated outages trip a per-host CircuitBreaker, and when a request
+ * finally fails a stale cached response is served if there is one.
+ */
 public class MangaDexSource implements MangaSource {
-    private static final String BASE_URL = "https://api.mangadex.org";
-    private static final String COVER_BASE_URL = "https://uploads.mangadex.org/covers";
-    private final ObjectMapper objectMapper;
-    private final CloseableHttpClient httpClient;
-
+    public static final String BASE_URL_PROPERTY = "mangadex.baseUrl";
+    public static final String COVER_BASE_URL_PROPERTY = "mangadex.coverBaseUrl";
+    public static final String AT_HOME_BASE_URL_PROPERTY = "mangadex.atHomeBaseUrl";
+    private static final String DEFAULT_BASE_URL = "https://api.mangadex.org";
+    private static final String DEFAULT_COVER_BASE_URL = "https://uploads.mangadex.org/covers";
+    private static final int FEED_PAGE_SIZE = 500;
+    private static final int MAX_IDS_PER_REQUEST = 100;
+    private static final Pattern MANGADEX_ID = Pattern
+            .compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    // MangaDex rejects collection requests where offset + limit exceeds 10000
+    private static final int MAX_FEED_OFFSET = 10000;
+    // At-home base URLs are documented to stay valid for about 15 minutes
+    private static final Duration AT_HOME_TTL = Duration.ofMinutes(10);
+    private final String baseUrl;
+    // Overrides the node from /at-home/server when set
+    private final String atHomeBaseUrl;
+    private final MangaDexJsonParser jsonParser;
+    private final HttpClientManager httpClientManager;
+    private final RateLimiter rateLimiter;
+    private final HttpResponseCache responseCache;
+    private final CircuitBreaker circuitBreaker;
+    private final ImageQualityManager imageQualityManager;
+    private final ExecutorService parseExecutor;
+    // Shared by all instances: manga ids are global, wherever they were parsed
+    private static final Map<String, String> readingFormats = new ConcurrentHashMap<>();
+    private static final SingleFlight<String, Object> inFlightRequests = new SingleFlight<>();
+    private static final MangaDexTagCatalog BUILT_IN_TAGS = MangaDexTagCatalog.builtIn();
+    private static volatile MangaDexTagCatalog tagCatalog;
+    // chapterId -> last at-home manifest; page URLs are only valid for a while
+    private static final Map<String, PageManifest> pageManifests = new ConcurrentHashMap<>();
+
+    /**
+     * The live MangaDex API, unless -Dmangadex.baseUrl,
+     * -Dmangadex.coverBaseUrl or -Dmangadex.atHomeBaseUrl point elsewhere
+     * (e.g. a stub server for load tests)
+     */
     public MangaDexSource() {
-        this.objectMapper = new ObjectMapper();
-        this.httpClient = HttpClients.createDefault();
+        this(System.getProperty(BASE_URL_PROPERTY, DEFAULT_BASE_URL),
+                System.getProperty(COVER_BASE_URL_PROPERTY, DEFAULT_COVER_BASE_URL),
+                System.getProperty(AT_HOME_BASE_URL_PROPERTY));
+    }
+
+    /**
+     * @param atHomeBaseUrl page server to use instead of the one /at-home/server
+     *                      returns; null to use the returned one
+     */
+    public MangaDexSource(String baseUrl, String coverBaseUrl, String atHomeBaseUrl) {
+        this.baseUrl = baseUrl;
+        this.atHomeBaseUrl = atHomeBaseUrl;
+        // Bodies are closed by fetch(), which may still need them after parsing
+        this.jsonParser = new MangaDexJsonParser(
+                new JsonFactory().disable(JsonParser.Feature.AUTO_CLOSE_SOURCE), coverBaseUrl);
+        this.httpClientManager = HttpClientManager.getInstance();
+        this.rateLimiter = RateLimiter.getInstance();
+        this.responseCache = HttpResponseCache.getInstance();
+        this.circuitBreaker = CircuitBreaker.getInstance();
+        this.imageQualityManager = ImageQualityManager.getInstance();
+        this.parseExecutor = httpClientManager.getBodyExecutor();
     }
 
     @Override
@@ -47,156 +128,112 @@ public class MangaDexSource implements MangaSource {
 
     @Override
     public List<Manga> search(String query, boolean includeNsfw) {
-        List<Manga> results = new ArrayList<>();
-        try {
-            String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8.toString());
-            String url = String.format(
-                    "%s/manga?title=%s&limit=20&includes[]=cover_art&includes[]=author&includes[]=artist", BASE_URL,
-                    encodedQuery);
-
-            if (!includeNsfw) {
-                url += "&contentRating[]=safe&contentRating[]=suggestive";
-            }
-
-            System.out.println("Requesting URL: " + url);
-            HttpGet request = new HttpGet(url);
-
-            HttpClientResponseHandler<String> responseHandler = response -> {
-                int status = response.getCode();
-                if (status >= 200 && status < 300) {
-                    String responseBody = EntityUtils.toString(response.getEntity());
-                    System.out.println("API Response received with status: " + status);
-                    // Print a small preview of the response for debugging
-                    if (responseBody.length() > 500) {
-                        System.out.println("Response preview: " + responseBody.substring(0, 500) + "...");
-                    } else {
-                        System.out.println("Response: " + responseBody);
-                    }
-                    return responseBody;
-                } else {
-                    throw new IOException("Unexpected response status: " + status);
-                }
-            };
-
-            String response = httpClient.execute(request, responseHandler);
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode data = root.get("data");
+        return await(searchAsync(query, includeNsfw), new ArrayList<>());
+    }
 
-            if (data.isArray()) {
-                for (JsonNode mangaNode : data) {
-                    Manga manga = parseMangaFromJson(mangaNode);
-                    results.add(manga);
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
+    @Override
+    public CompletableFuture<List<Manga>> searchAsync(String query, boolean includeNsfw) {
+        String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
+        String url = String.format(
+                "%s/manga?title=%s&limit=20&includes[]=cover_art&includes[]=author&includes[]=artist", baseUrl,
+                encodedQuery);
+
+        if (!includeNsfw) {
+            url += "&contentRating[]=safe&contentRating[]=suggestive";
         }
-        return results;
+
+        System.out.println("Requesting URL: " + url);
+        return fetch(url, in -> remember(jsonParser.parseMangaList(in).items));
     }
 
     @Override
     public SearchResult advancedSearch(SearchParams params) {
-        SearchResult result = new SearchResult();
-        try {
-            StringBuilder urlBuilder = new StringBuilder(
-                    String.format("%s/manga?includes[]=cover_art&includes[]=author&includes[]=artist", BASE_URL));
+        return await(advancedSearchAsync(params), new SearchResult());
+    }
 
-            if (params.getQuery() != null && !params.getQuery().isEmpty()) {
-                String encodedQuery = URLEncoder.encode(params.getQuery(), StandardCharsets.UTF_8.toString());
-                urlBuilder.append("&title=").append(encodedQuery);
-            }
+    @Override
+    public CompletableFuture<SearchResult> advancedSearchAsync(SearchParams params) {
+        StringBuilder urlBuilder = new StringBuilder(
+                String.format("%s/manga?includes[]=cover_art&includes[]=author&includes[]=artist", baseUrl));
 
-            if (!params.isIncludeNsfw()) {
-                urlBuilder.append("&contentRating[]=safe&contentRating[]=suggestive");
-            } else {
-                urlBuilder.append(
-                        "&contentRating[]=safe&contentRating[]=suggestive&contentRating[]=erotica&contentRating[]=pornographic");
-            }
+        if (params.getQuery() != null && !params.getQuery().isEmpty()) {
+            String encodedQuery = URLEncoder.encode(params.getQuery(), StandardCharsets.UTF_8);
+            urlBuilder.append("&title=").append(encodedQuery);
+        }
 
-            if (!params.getIncludedGenres().isEmpty()) {
-                for (String genre : params.getIncludedGenres()) {
-                    String genreId = getGenreIdByName(genre);
-                    if (genreId != null) {
-                        urlBuilder.append("&includedTags[]=").append(genreId);
-                    }
-                }
-            }
+        if (!params.isIncludeNsfw()) {
+            urlBuilder.append("&contentRating[]=safe&contentRating[]=suggestive");
+        } else {
+            urlBuilder.append(
+                    "&contentRating[]=safe&contentRating[]=suggestive&contentRating[]=erotica&contentRating[]=pornographic");
+        }
 
-            if (!params.getExcludedGenres().isEmpty()) {
-                for (String genre : params.getExcludedGenres()) {
-                    String genreId = getGenreIdByName(genre);
-                    if (genreId != null) {
-                        urlBuilder.append("&excludedTags[]=").append(genreId);
-                    }
-                }
+        MangaDexTagCatalog tags = currentTags();
+        for (String genre : params.getIncludedGenres()) {
+            MangaDexTagCatalog.Tag tag = tags.findByName(genre);
+            if (tag == null) {
+                System.err.println("Unknown MangaDex tag: " + genre);
+            } else if (tag.isDemographic()) {
+                urlBuilder.append("&publicationDemographic[]=").append(tag.id);
+            } else {
+                urlBuilder.append("&includedTags[]=").append(tag.id);
             }
-
-            if (params.getStatus() != null && !params.getStatus().isEmpty()) {
-                urlBuilder.append("&status[]=").append(params.getStatus());
+        }
+        for (String genre : params.getExcludedGenres()) {
+            MangaDexTagCatalog.Tag tag = tags.findByName(genre);
+            // The API has no "exclude demographic" filter
+            if (tag != null && !tag.isDemographic()) {
+                urlBuilder.append("&excludedTags[]=").append(tag.id);
             }
+        }
 
-            urlBuilder.append("&limit=").append(params.getLimit());
-            urlBuilder.append("&offset=").append((params.getPage() - 1) * params.getLimit());
+        if (params.getStatus() != null && !params.getStatus().isEmpty()) {
+            urlBuilder.append("&status[]=").append(params.getStatus());
+        }
 
-            for (String key : params.getAdditionalParams().keySet()) {
-                String value = params.getAdditionalParams().get(key);
-                urlBuilder.append("&").append(key).append("=").append(value);
-            }
+        int page = params.getPage();
+        int limit = params.getLimit();
+        urlBuilder.append("&limit=").append(limit);
+        urlBuilder.append("&offset=").append((page - 1) * limit);
 
-            String url = urlBuilder.toString();
-            System.out.println("Advanced search URL: " + url);
-            HttpGet request = new HttpGet(url);
+        for (String key : params.getAdditionalParams().keySet()) {
+            String value = params.getAdditionalParams().get(key);
+            urlBuilder.append("&").append(key).append("=").append(value);
+        }
 
-            HttpClientResponseHandler<String> responseHandler = response -> {
-                int status = response.getCode();
-                if (status >= 200 && status < 300) {
-                    return EntityUtils.toString(response.getEntity());
-                } else {
-                    throw new IOException("Unexpected response status: " + status);
-                }
-            };
+        String url = urlBuilder.toString();
+        System.out.println("Advanced search URL: " + url);
 
-            String response = httpClient.execute(request, responseHandler);
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode data = root.get("data");
+        return fetch(url, in -> {
+            MangaDexJsonParser.ListResponse<Manga> response = jsonParser.parseMangaList(in);
+            remember(response.items);
+            SearchResult result = new SearchResult();
 
-            if (root.has("total")) {
-                int totalResults = root.get("total").asInt();
-                result.setTotalResults(totalResults);
+            if (response.total >= 0) {
+                result.setTotalResults(response.total);
 
-                int totalPages = (int) Math.ceil((double) totalResults / params.getLimit());
+                int totalPages = (int) Math.ceil((double) response.total / limit);
                 result.setTotalPages(totalPages);
             } else {
                 result.setTotalPages(1);
-                result.setTotalResults(data.size());
+                result.setTotalResults(response.items.size());
             }
 
-            result.setCurrentPage(params.getPage());
+            result.setCurrentPage(page);
             result.updatePaginationInfo();
-
-            List<Manga> mangas = new ArrayList<>();
-            if (data.isArray()) {
-                for (JsonNode mangaNode : data) {
-                    Manga manga = parseMangaFromJson(mangaNode);
-                    mangas.add(manga);
-                }
-            }
-            result.setResults(mangas);
-
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return result;
+            result.setResults(response.items);
+            return result;
+        });
     }
 
     @Override
     public List<String> getAvailableGenres() {
-        return Arrays.asList(
-                "Action", "Adventure", "Comedy", "Drama", "Fantasy",
-                "Horror", "Mystery", "Psychological", "Romance",
-                "Sci-Fi", "Slice of Life", "Sports", "Supernatural", "Thriller",
-                "School Life", "Shounen", "Shoujo", "Seinen", "Josei",
-                "Martial Arts", "Historical", "Medical", "Music", "Military");
+        return await(getTagCatalogAsync(), BUILT_IN_TAGS).getNames();
+    }
+
+    @Override
+    public CompletableFuture<List<String>> getAvailableGenresAsync() {
+        return getTagCatalogAsync().thenApply(MangaDexTagCatalog::getNames);
     }
 
     @Override
@@ -205,377 +242,588 @@ public class MangaDexSource implements MangaSource {
                 "ongoing", "completed", "hiatus", "cancelled");
     }
 
-    private String getGenreIdByName(String genreName) { // These are the actual UUID-based tag IDs from MangaDex API
-        switch (genreName.toLowerCase()) {
-            case "action":
-                return "391b0423-d847-456f-aff0-8b0cfc03066b";
-            case "adventure":
-                return "87cc87cd-a395-47af-b27a-93258283bbc6";
-            case "comedy":
-                return "4d32cc48-9f00-4cca-9b5a-a839f0764984";
-            case "drama":
-                return "b9af3a63-f058-46de-a9a0-e0c13906197a";
-            case "fantasy":
-                return "cdc58593-87dd-415e-bbc0-2ec27bf404cc";
-            case "horror":
-                return "cdad7e68-1419-41dd-bdce-27753074a640";
-            case "mystery":
-                return "ee968100-4191-4968-93d3-f82d72be7e46";
-            case "psychological":
-                return "3b60b75c-a2d7-4860-ab56-05f391bb889c";
-            case "romance":
-                return "423e2eae-a7a2-4a8b-ac03-a8351462d71d";
-            case "sci-fi":
-                return "256c8bd9-4904-4360-bf4f-508a76d67183";
-            case "slice of life":
-                return "e5301a23-ebd9-49dd-a0cb-2add944c7fe9";
-            case "sports":
-                return "69964a64-2f90-4d33-beeb-f3ed2875eb4c";
-            case "supernatural":
-                return "eabc5b4c-6aff-42f3-b657-3e90cbd00b75";
-            case "thriller":
-                return "07251805-a27e-4d59-b488-f0bfbec15168";
-            case "school life":
-                return "caaa44eb-cd40-4177-b930-79d3ef2afe87";
-            case "shounen":
-                return "27a532ba-8adc-4e1d-ab25-4b4b680b0d7b";
-            case "shoujo":
-                return "a3c67850-4684-404e-9b7f-c69850ee5da6";
-            case "seinen":
-                return "a1f53773-c69a-4ce5-8cab-fffcd90b1565";
-            case "josei":
-                return "aa04485a-91c2-4b02-9b59-ec9f0e86b9c3";
-            case "martial arts":
-                return "799c202e-7daa-44eb-9cf7-8a3c0441531e";
-            case "historical":
-                return "33771934-028e-4cb3-8744-691e866a923e";
-            case "medical":
-                return "c8cbe35b-1b2b-4a3f-9c37-db84c4514856";
-            case "music":
-                return "f8f62932-27da-4fe4-8ee1-6779a8c5edba";
-            case "military":
-                return "ac72833b-c4e9-4878-b9db-6c8a4a99444a";
-            default:
-                return null;
+    /**
+     * The full tag catalogue from /manga/tag. It is loaded once per run (and
+     * kept on disk by the HttpResponseCache for a week); until then, or if it
+     * cannot be loaded, the built-in list is used.
+     */
+    private CompletableFuture<MangaDexTagCatalog> getTagCatalogAsync() {
+        MangaDexTagCatalog loaded = tagCatalog;
+        if (loaded != null) {
+            return CompletableFuture.completedFuture(loaded);
         }
+        return fetch(baseUrl + "/manga/tag", in -> new MangaDexTagCatalog(jsonParser.parseTagList(in).items))
+                .thenApply(catalog -> {
+                    tagCatalog = catalog;
+                    System.out.println("Loaded " + catalog.size() + " MangaDex tags");
+                    return catalog;
+                })
+                .exceptionally(error -> {
+                    System.err.println("Could not load MangaDex tags, using built-in list: " + error.getMessage());
+                    return BUILT_IN_TAGS;
+                });
+    }
+
+    private MangaDexTagCatalog currentTags() {
+        MangaDexTagCatalog loaded = tagCatalog;
+        return loaded != null ? loaded : BUILT_IN_TAGS;
     }
 
     @Override
     public Optional<Manga> getMangaDetails(String mangaId) {
-        try {
-            String url = String.format("%s/manga/%s?includes[]=cover_art&includes[]=author&includes[]=artist", BASE_URL,
-                    mangaId);
-            System.out.println("Getting manga details from URL: " + url);
-            HttpGet request = new HttpGet(url);
-
-            HttpClientResponseHandler<String> responseHandler = response -> {
-                int status = response.getCode();
-                if (status >= 200 && status < 300) {
-                    return EntityUtils.toString(response.getEntity());
-                } else {
-                    throw new IOException("Unexpected response status: " + status);
-                }
-            };
+        return await(getMangaDetailsAsync(mangaId), Optional.empty());
+    }
 
-            String response = httpClient.execute(request, responseHandler);
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode data = root.get("data");
+    @Override
+    public CompletableFuture<Optional<Manga>> getMangaDetailsAsync(String mangaId) {
+        String url = String.format("%s/manga/%s?includes[]=cover_art&includes[]=author&includes[]=artist", baseUrl,
+                mangaId);
+        System.out.println("Getting manga details from URL: " + url);
+
+        return fetch(url, in -> {
+            Manga manga = jsonParser.parseMangaEntity(in);
+            if (manga != null) {
+                remember(List.of(manga));
+            }
+            return Optional.ofNullable(manga);
+        });
+    }
+
+    @Override
+    public Map<String, Manga> getMangaDetailsBatch(Collection<String> mangaIds) {
+        return await(getMangaDetailsBatchAsync(mangaIds), new LinkedHashMap<>());
+    }
 
-            if (data != null) {
-                Manga manga = parseMangaFromJson(data);
-                return Optional.of(manga);
+    /**
+     * Uses /manga?ids[]=... so up to 100 titles cost one request instead of
+     * one each. Chunks are requested concurrently; a failed chunk only loses
+     * its own titles. Ids that are not MangaDex UUIDs are left out, since
+     * MangaDex rejects the whole request for one malformed id.
+     */
+    @Override
+    public CompletableFuture<Map<String, Manga>> getMangaDetailsBatchAsync(Collection<String> mangaIds) {
+        List<String> ids = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(mangaIds)) {
+            if (id != null && MANGADEX_ID.matcher(id).matches()) {
+                ids.add(id);
+            } else {
+                System.err.println("Skipping non-MangaDex id in batch lookup: " + id);
+            }
+        }
+        List<CompletableFuture<List<Manga>>> chunks = new ArrayList<>();
+        for (int start = 0; start < ids.size(); start += MAX_IDS_PER_REQUEST) {
+            List<String> chunk = ids.subList(start, Math.min(start + MAX_IDS_PER_REQUEST, ids.size()));
+            StringBuilder urlBuilder = new StringBuilder(String.format(
+                    "%s/manga?limit=%d&includes[]=cover_art&includes[]=author&includes[]=artist"
+                            + "&contentRating[]=safe&contentRating[]=suggestive&contentRating[]=erotica"
+                            + "&contentRating[]=pornographic",
+                    baseUrl, MAX_IDS_PER_REQUEST));
+            for (String id : chunk) {
+                urlBuilder.append("&ids[]=").append(id);
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+            chunks.add(fetch(urlBuilder.toString(), in -> remember(jsonParser.parseMangaList(in).items)));
+        }
+        System.out.println("Fetching details for " + ids.size() + " manga in " + chunks.size() + " requests");
+
+        List<CompletableFuture<List<Manga>>> settled = new ArrayList<>();
+        for (CompletableFuture<List<Manga>> chunk : chunks) {
+            settled.add(chunk.handle((manga, error) -> {
+                if (error != null) {
+                    System.err.println("Batch details request failed: " + error.getMessage());
+                    return List.<Manga>of();
+                }
+                return manga;
+            }));
         }
-        return Optional.empty();
+        CompletableFuture<Map<String, Manga>> result = CompletableFuture
+                .allOf(settled.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    Map<String, Manga> byId = new HashMap<>();
+                    for (CompletableFuture<List<Manga>> chunk : settled) {
+                        chunk.join().forEach(manga -> byId.put(manga.getId(), manga));
+                    }
+                    // Keep the caller's order
+                    Map<String, Manga> details = new LinkedHashMap<>();
+                    for (String id : ids) {
+                        Manga manga = byId.get(id);
+                        if (manga != null) {
+                            details.put(id, manga);
+                        }
+                    }
+                    return details;
+                });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                chunks.forEach(chunk -> chunk.cancel(true));
+            }
+        });
+        return result;
     }
 
     @Override
     public List<Chapter> getChapters(String mangaId) {
-        List<Chapter> chapters = new ArrayList<>();
-        try {
-            String mangaReadingFormat = "normal"; // default
-            Optional<Manga> mangaDetails = getMangaDetails(mangaId);
-            if (mangaDetails.isPresent() && mangaDetails.get().getReadingFormat() != null) {
-                mangaReadingFormat = mangaDetails.get().getReadingFormat();
+        return await(getChaptersAsync(mangaId), new ArrayList<>());
+    }
+
+    /**
+     * Loads the whole English feed. The first page tells us the total, then
+     * the remaining pages are requested concurrently (the RateLimiter still
+     * paces them) and merged back in offset order.
+     *
+     * The reading format comes from manga metadata this source has already
+     * parsed (search results, details); only a manga we have never seen
+     * costs an extra details request, and that one runs in parallel.
+     */
+    @Override
+    public CompletableFuture<List<Chapter>> getChaptersAsync(String mangaId) {
+        CompletableFuture<List<Chapter>> result = new CompletableFuture<>();
+        List<CompletableFuture<?>> pending = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<String> formatFuture;
+        String knownFormat = readingFormats.get(mangaId);
+        if (knownFormat != null) {
+            formatFuture = CompletableFuture.completedFuture(knownFormat);
+        } else {
+            CompletableFuture<Optional<Manga>> detailsFuture = getMangaDetailsAsync(mangaId);
+            pending.add(detailsFuture);
+            formatFuture = detailsFuture
+                    .thenApply(details -> details.map(Manga::getReadingFormat).orElse("normal"))
+                    .exceptionally(e -> "normal");
+        }
+
+        CompletableFuture<MangaDexJsonParser.ListResponse<Chapter>> firstPage = fetchFeedPage(mangaId, 0);
+        pending.add(firstPage);
+
+        CompletableFuture<List<Chapter>> feedFuture = firstPage.thenCompose(first -> {
+            int total = first.total;
+            if (total > MAX_FEED_OFFSET) {
+                System.err.println("Feed for " + mangaId + " has " + total + " chapters, only the first "
+                        + MAX_FEED_OFFSET + " can be paged through");
+                total = MAX_FEED_OFFSET;
             }
 
-            String url = String.format("%s/manga/%s/feed?translatedLanguage[]=en&limit=500", BASE_URL, mangaId);
-            HttpGet request = new HttpGet(url);
+            List<CompletableFuture<MangaDexJsonParser.ListResponse<Chapter>>> pages = new ArrayList<>();
+            pages.add(CompletableFuture.completedFuture(first));
+            for (int offset = FEED_PAGE_SIZE; offset < total && !result.isDone(); offset += FEED_PAGE_SIZE) {
+                CompletableFuture<MangaDexJsonParser.ListResponse<Chapter>> page = fetchFeedPage(mangaId, offset);
+                pending.add(page);
+                pages.add(page);
+            }
+            if (pages.size() > 1) {
+                System.out.println("Fetching " + (pages.size() - 1) + " more feed pages for " + mangaId
+                        + " (" + total + " chapters)");
+            }
 
-            HttpClientResponseHandler<String> responseHandler = response -> {
-                int status = response.getCode();
-                if (status >= 200 && status < 300) {
-                    return EntityUtils.toString(response.getEntity());
-                } else {
-                    throw new IOException("Unexpected response status: " + status);
-                }
-            };
-
-            String response = httpClient.execute(request, responseHandler);
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode data = root.get("data");
-
-            if (data.isArray()) {
-                for (JsonNode chapterNode : data) {
-                    Chapter chapter = parseChapterFromJson(chapterNode);
-                    chapter.setMangaId(mangaId);
-                    chapter.setReadingFormat(mangaReadingFormat);
-                    chapters.add(chapter);
+            return CompletableFuture.allOf(pages.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+                List<Chapter> chapters = new ArrayList<>();
+                for (CompletableFuture<MangaDexJsonParser.ListResponse<Chapter>> page : pages) {
+                    chapters.addAll(page.join().items);
                 }
+                return chapters;
+            });
+        });
+
+        feedFuture.thenCombine(formatFuture, (chapters, readingFormat) -> {
+            for (Chapter chapter : chapters) {
+                chapter.setMangaId(mangaId);
+                chapter.setReadingFormat(readingFormat);
             }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return chapters;
+            return chapters;
+        }).whenComplete((chapters, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(chapters);
+            }
+        });
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                pending.forEach(future -> future.cancel(true));
+            }
+        });
+        return result;
+    }
+
+    private CompletableFuture<MangaDexJsonParser.ListResponse<Chapter>> fetchFeedPage(String mangaId, int offset) {
+        String url = String.format(
+                "%s/manga/%s/feed?translatedLanguage[]=en&order[volume]=asc&order[chapter]=asc&limit=%d&offset=%d",
+                baseUrl, mangaId, FEED_PAGE_SIZE, offset);
+        return fetch(url, jsonParser::parseChapterList);
     }
 
     @Override
     public List<String> getChapterPages(String mangaId, String chapterId) {
-        List<String> pages = new ArrayList<>();
-        try {
-            String url = String.format("%s/at-home/server/%s", BASE_URL, chapterId);
-            System.out.println("Fetching chapter pages from URL: " + url);
-            System.out.println("Chapter ID: " + chapterId);
-            HttpGet request = new HttpGet(url);
-
-            HttpClientResponseHandler<String> responseHandler = response -> {
-                int status = response.getCode();
-                if (status >= 200 && status < 300) {
-                    String responseBody = EntityUtils.toString(response.getEntity());
-                    System.out.println("Chapter pages API response status: " + status);
-                    System.out.println("Response preview: "
-                            + (responseBody.length() > 200 ? responseBody.substring(0, 200) + "..." : responseBody));
-                    return responseBody;
-                } else {
-                    System.err.println("Error response status for chapter pages: " + status);
-                    throw new IOException("Unexpected response status: " + status);
-                }
-            };
+        List<String> pages = await(getChapterPagesAsync(mangaId, chapterId), new ArrayList<>());
+        System.out.println("Total pages found: " + pages.size());
+        return pages;
+    }
 
-            String response = httpClient.execute(request, responseHandler);
-            JsonNode root = objectMapper.readTree(response);
+    @Override
+    public List<String> refreshChapterPages(String mangaId, String chapterId) {
+        pageManifests.remove(chapterId);
+        return getChapterPages(mangaId, chapterId);
+    }
 
-            JsonNode resultNode = root.get("result");
-            if (resultNode == null || !"ok".equals(resultNode.asText())) {
-                System.err.println(
-                        "API response result is not 'ok': " + (resultNode != null ? resultNode.asText() : "null"));
-                return pages;
-            }
+    /**
+     * Page URLs point at an at-home node and carry a token that expires, so
+     * a chapter's manifest is only reused for AT_HOME_TTL. The URLs are built
+     * in the quality ImageQualityManager asks for at the time of the call.
+     */
+    @Override
+    public CompletableFuture<List<String>> getChapterPagesAsync(String mangaId, String chapterId) {
+        PageManifest cached = pageManifests.get(chapterId);
+        if (cached != null && cached.isValid()) {
+            System.out.println("Using cached page list for chapter " + chapterId);
+            return CompletableFuture.completedFuture(pageUrls(cached.manifest));
+        }
 
-            JsonNode baseUrlNode = root.get("baseUrl");
-            if (baseUrlNode == null) {
-                System.err.println("No 'baseUrl' found in response");
-                return pages;
-            }
-            String baseUrl = baseUrlNode.asText();
-            System.out.println("Base URL: " + baseUrl);
+        String url = String.format("%s/at-home/server/%s", baseUrl, chapterId);
+        System.out.println("Fetching chapter pages from URL: " + url);
+        System.out.println("Chapter ID: " + chapterId);
 
-            JsonNode chapter = root.get("chapter");
-            if (chapter == null) {
-                System.err.println("No 'chapter' node found in response");
-                return pages;
+        CompletableFuture<MangaDexJsonParser.AtHomeManifest> manifest = fetch(url, jsonParser::parseAtHome);
+        CompletableFuture<List<String>> pages = manifest.thenApply(atHome -> {
+            List<String> pageUrls = pageUrls(atHome);
+            if (!pageUrls.isEmpty()) {
+                pageManifests.values().removeIf(entry -> !entry.isValid());
+                pageManifests.put(chapterId, new PageManifest(atHome));
             }
-
-            JsonNode hash = chapter.get("hash");
-            JsonNode dataArray = chapter.get("data");
-
-            if (hash == null) {
-                System.err.println("No 'hash' found in chapter data");
-                return pages;
+            return pageUrls;
+        });
+        pages.whenComplete((value, error) -> {
+            if (pages.isCancelled()) {
+                manifest.cancel(true);
             }
+        });
+        return pages;
+    }
 
-            if (dataArray == null || !dataArray.isArray()) {
-                System.err.println("No 'data' array found in chapter data");
-                return pages;
-            }
+    private List<String> pageUrls(MangaDexJsonParser.AtHomeManifest manifest) {
+        List<String> pages = new ArrayList<>();
 
-            System.out.println("Found " + dataArray.size() + " pages for chapter");
-            for (JsonNode page : dataArray) {
-                String pageUrl = String.format("%s/data/%s/%s", baseUrl, hash.asText(), page.asText());
-                pages.add(pageUrl);
-                System.out.println("Added page URL: " + pageUrl);
-            }
-        } catch (IOException e) {
-            System.err.println("Error fetching chapter pages: " + e.getMessage());
-            e.printStackTrace();
+        if (!"ok".equals(manifest.result)) {
+            System.err.println("API response result is not 'ok': " + manifest.result);
+            return pages;
+        }
+        String nodeUrl = atHomeBaseUrl != null ? atHomeBaseUrl : manifest.baseUrl;
+        if (nodeUrl == null) {
+            System.err.println("No 'baseUrl' found in response");
+            return pages;
+        }
+        System.out.println("Base URL: " + nodeUrl);
+        if (manifest.hash == null) {
+            System.err.println("No 'hash' found in chapter data");
+            return pages;
         }
 
-        System.out.println("Total pages found: " + pages.size());
+        // Data-saver pages are separate (smaller) files under /data-saver
+        boolean dataSaver = imageQualityManager.getEffectiveQuality() == ImageQuality.DATA_SAVER
+                && !manifest.dataSaver.isEmpty();
+        List<String> files = dataSaver ? manifest.dataSaver : manifest.data;
+        String path = dataSaver ? "data-saver" : "data";
+
+        System.out.println("Found " + files.size() + " pages for chapter (" + path + ")");
+        for (String page : files) {
+            String pageUrl = String.format("%s/%s/%s/%s", nodeUrl, path, manifest.hash, page);
+            pages.add(pageUrl);
+            System.out.println("Added page URL: " + pageUrl);
+        }
         return pages;
     }
 
     @Override
     public String getCoverUrl(String mangaId) {
-        try {
-            String url = String.format("%s/manga/%s?includes[]=cover_art", BASE_URL, mangaId);
-            HttpGet request = new HttpGet(url);
+        return await(getCoverUrlAsync(mangaId), null);
+    }
 
-            HttpClientResponseHandler<String> responseHandler = response -> {
-                int status = response.getCode();
-                if (status >= 200 && status < 300) {
-                    return EntityUtils.toString(response.getEntity());
-                } else {
-                    throw new IOException("Unexpected response status: " + status);
-                }
-            };
-
-            String response = httpClient.execute(request, responseHandler);
-            JsonNode root = objectMapper.readTree(response);
-            JsonNode relationships = root.get("data").get("relationships");
-
-            if (relationships.isArray()) {
-                for (JsonNode rel : relationships) {
-                    if ("cover_art".equals(rel.get("type").asText())) {
-                        JsonNode attributes = rel.path("attributes");
-                        if (attributes != null && !attributes.isMissingNode()) {
-                            JsonNode fileNameNode = attributes.path("fileName");
-                            if (!fileNameNode.isMissingNode() && !fileNameNode.isNull()) {
-                                String fileName = fileNameNode.asText();
-                                return String.format("%s/%s/%s", COVER_BASE_URL, mangaId, fileName);
-                            }
-                        }
-                        String coverId = rel.get("id").asText();
-                        return String.format("%s/%s/%s.jpg", COVER_BASE_URL, mangaId, coverId);
-                    }
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return null;
-    }
-
-    private Manga parseMangaFromJson(JsonNode node) {
-        Manga manga = new Manga();
-        JsonNode attributes = node.path("attributes");
-        manga.setId(node.path("id").asText());
-        manga.setTitle(attributes.path("title").path("en").asText());
-        manga.setDescription(attributes.path("description").path("en").asText());
-        manga.setStatus(attributes.path("status").asText());
-        String updatedAt = attributes.path("updatedAt").asText("");
-        if (!updatedAt.isEmpty()) {
-            manga.setLastUpdated(LocalDateTime.parse(updatedAt, DateTimeFormatter.ISO_DATE_TIME));
-        }
-        List<String> genres = new ArrayList<>();
-        JsonNode tags = attributes.path("tags");
-        if (tags.isArray()) {
-            for (JsonNode tag : tags) {
-                JsonNode tagName = tag.path("attributes").path("name").path("en");
-                if (!tagName.isMissingNode())
-                    genres.add(tagName.asText());
+    @Override
+    public CompletableFuture<String> getCoverUrlAsync(String mangaId) {
+        // Same request as getMangaDetails, so a details lookup already in
+        // flight for this manga is shared instead of sending another one
+        CompletableFuture<Optional<Manga>> details = getMangaDetailsAsync(mangaId);
+        CompletableFuture<String> coverUrl = details.thenApply(manga -> manga
+                .map(Manga::getCoverUrl)
+                .filter(url -> !url.isEmpty())
+                .orElse(null));
+        coverUrl.whenComplete((value, error) -> {
+            if (coverUrl.isCancelled()) {
+                details.cancel(true);
             }
-        }
-        manga.setGenres(genres);
-        manga.setLanguage(attributes.path("originalLanguage").asText("en"));
-        StringBuilder authors = new StringBuilder();
-        StringBuilder artists = new StringBuilder();
-        JsonNode relationships = node.path("relationships");
-        if (relationships.isArray()) {
-            for (JsonNode rel : relationships) {
-                String type = rel.path("type").asText();
-                if (rel != null && "author".equals(type)) {
-                    JsonNode attr = rel.path("attributes");
-                    if (!attr.isMissingNode() && attr.has("name")) {
-                        if (authors.length() > 0)
-                            authors.append(", ");
-                        authors.append(attr.get("name").asText());
-                        System.out.println("Found author: " + attr.get("name").asText());
-                    }
-                }
-                if (rel != null && "artist".equals(type)) {
-                    JsonNode attr = rel.path("attributes");
-                    if (!attr.isMissingNode() && attr.has("name")) {
-                        if (artists.length() > 0)
-                            artists.append(", ");
-                        artists.append(attr.get("name").asText());
-                        System.out.println("Found artist: " + attr.get("name").asText());
-                    }
-                }
-                if (rel != null && "cover_art".equals(rel.path("type").asText())) {
-                    JsonNode attrNode = rel.path("attributes");
-                    JsonNode fileNameNode = attrNode.path("fileName");
-                    if (!fileNameNode.isMissingNode() && !fileNameNode.isNull()) {
-                        String coverFileName = fileNameNode.asText();
-                        String constructedUrl = String.format("%s/%s/%s", COVER_BASE_URL, manga.getId(), coverFileName);
-                        manga.setCoverUrl(constructedUrl);
-                        System.out.println("Set cover URL: " + constructedUrl);
-                    }
+        });
+        return coverUrl;
+    }
+
+    /**
+     * How many identical requests were coalesced into one (across all
+     * MangaDexSource instances)
+     */
+    public static SingleFlight.Stats getCoalescingStats() {
+        return inFlightRequests.getStats();
+    }
+
+    /**
+     * Identical concurrent requests (same URL) share one in-flight call. A URL
+     * is always parsed the same way, so sharing the parsed result is safe.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> fetch(String url, ResponseParser<T> parser) {
+        return (CompletableFuture<T>) inFlightRequests.execute(url,
+                () -> (CompletableFuture<Object>) send(url, parser));
+    }
+
+    /**
+     * Every request ends up here: serve it from the HttpResponseCache
+     * while fresh, otherwise wait for a permit from the shared RateLimiter,
+     * send without blocking (revalidating a stale entry if there is one), then
+     * stream-parse the body.
+     *
+     * The body is consumed as an InputStream on parseExecutor rather than on
+     * the HTTP client's threads, since reading it blocks until the data
+     * arrives. Cancelling the returned future cancels the HTTP exchange if it
+     * has already started, or skips it entirely if it is still waiting for a
+     * permit or a retry.
+     *
+     * A fresh entry that cannot be read back is treated as a miss: it is
+     * discarded and the request goes to the network.
+     */
+    private <T> CompletableFuture<T> send(String url, ResponseParser<T> parser) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<?>> inFlight = new AtomicReference<>(CompletableFuture.completedFuture(null));
+
+        HttpResponseCache.Entry cached = responseCache.lookup(url);
+        if (cached != null && cached.isFresh()) {
+            parseExecutor.execute(() -> {
+                try (InputStream body = cached.openBody()) {
+                    T value = parser.parse(body);
+                    responseCache.recordHit();
+                    result.complete(value);
+                } catch (IOException e) {
+                    System.err.println("Unreadable cached response for " + url + ", fetching it again: "
+                            + e.getMessage());
+                    responseCache.discard(cached);
+                    attempt(new Call<>(url, parser, null, result, inFlight), 0);
                 }
-            }
+            });
+        } else {
+            attempt(new Call<>(url, parser, cached, result, inFlight), 0);
         }
-        manga.setAuthor(authors.toString());
-        manga.setArtist(artists.toString());
-        if (manga.getCoverUrl() == null)
-            manga.setCoverUrl("");
-        return manga;
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                inFlight.get().cancel(true);
+            }
+        });
+        return result;
     }
 
-    private Chapter parseChapterFromJson(JsonNode node) {
-        Chapter chapter = new Chapter();
-        JsonNode attributes = node.get("attributes");
+    /**
+     * One try of a call. Connection errors, timeouts, 429 and 5xx are retried
+     * with backoff (see retryOrFail); other statuses fail straight away. Every
+     * admitted try either records an outcome with the circuit breaker or
+     * releases its trial (cancelled calls count as neither).
+     */
+    private <T> void attempt(Call<T> call, int attempt) {
+        if (call.result.isDone()) {
+            return;
+        }
+        if (!circuitBreaker.allowRequest(call.url)) {
+            parseExecutor.execute(() -> fail(call, new IOException("Circuit open, failing fast: " + call.url)));
+            return;
+        }
 
-        if (node.has("id")) {
-            chapter.setId(node.get("id").asText());
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(URI.create(call.url))
+                .timeout(HttpClientManager.REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET();
+        if (call.cached != null && call.cached.getEtag() != null) {
+            requestBuilder.header("If-None-Match", call.cached.getEtag());
+        }
+        if (call.cached != null && call.cached.getLastModified() != null) {
+            requestBuilder.header("If-Modified-Since", call.cached.getLastModified());
         }
+        HttpRequest request = requestBuilder.build();
+
+        CompletableFuture<Void> permit = rateLimiter.acquireAsync(call.url);
+        call.inFlight.set(permit);
 
-        if (attributes != null) {
-            if (attributes.has("mangaId")) {
-                JsonNode mangaIdNode = attributes.get("mangaId");
-                if (mangaIdNode != null && !mangaIdNode.isNull()) {
-                    chapter.setMangaId(mangaIdNode.asText());
+        permit.thenCompose(ignored -> {
+            if (call.result.isDone()) {
+                return CompletableFuture.<HttpResponse<InputStream>>failedFuture(new CancellationException());
+            }
+            CompletableFuture<HttpResponse<InputStream>> send = httpClientManager.sendStreaming(request);
+            call.inFlight.set(send);
+            return send;
+        }).whenCompleteAsync((response, error) -> {
+            if (error != null) {
+                if (call.result.isDone()) {
+                    circuitBreaker.releaseTrial(call.url);
+                    return;
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error;
+                if (cause instanceof IOException) {
+                    circuitBreaker.recordFailure(call.url);
+                    retryOrFail(call, attempt, cause, 0);
+                } else {
+                    circuitBreaker.releaseTrial(call.url);
+                    call.result.completeExceptionally(cause);
                 }
+                return;
             }
 
-            if (attributes.has("title")) {
-                JsonNode titleNode = attributes.get("title");
-                if (titleNode != null && !titleNode.isNull()) {
-                    chapter.setTitle(titleNode.asText());
+            HttpStatusException failure;
+            long retryAfterNanos;
+            try (InputStream body = response.body()) {
+                int status = response.statusCode();
+                retryAfterNanos = rateLimiter.onResponse(call.url, status, response.headers());
+                if (call.result.isDone()) {
+                    circuitBreaker.releaseTrial(call.url);
+                    return;
+                }
+                failure = new HttpStatusException(status, call.url);
+                if (status >= 500) {
+                    circuitBreaker.recordFailure(call.url);
                 } else {
-                    chapter.setTitle(""); // Default empty title
+                    circuitBreaker.recordSuccess(call.url);
                 }
-            } else {
-                chapter.setTitle(""); // Default empty title
-            }
 
-            if (attributes.has("chapter")) {
-                JsonNode chapterNode = attributes.get("chapter");
-                if (chapterNode != null && !chapterNode.isNull()) {
-                    try {
-                        chapter.setNumber(Double.parseDouble(chapterNode.asText()));
-                    } catch (NumberFormatException e) {
-                        chapter.setNumber(0.0); // Default to 0 if parsing fails
-                        System.err.println("Error parsing chapter number: " + e.getMessage());
+                if (status == 304 && call.cached != null) {
+                    responseCache.markRevalidated(call.cached);
+                    try (InputStream cachedBody = call.cached.openBody()) {
+                        call.result.complete(call.parser.parse(cachedBody));
                     }
-                } else {
-                    chapter.setNumber(0.0); // Default to 0
+                    return;
+                } else if (status >= 200 && status < 300) {
+                    responseCache.recordMiss();
+                    try (HttpResponseCache.Recorder recorder = responseCache.record(call.url, response.headers(),
+                            body)) {
+                        T value = call.parser.parse(recorder.stream());
+                        recorder.commit();
+                        call.result.complete(value);
+                    }
+                    return;
                 }
+            } catch (Exception e) {
+                circuitBreaker.releaseTrial(call.url); // no-op if the status was already recorded
+                call.result.completeExceptionally(e);
+                return;
+            }
+
+            if (failure.isRetryable()) {
+                retryOrFail(call, attempt, failure, retryAfterNanos);
             } else {
-                chapter.setNumber(0.0); // Default to 0
+                call.result.completeExceptionally(failure);
             }
+        }, parseExecutor);
+    }
 
-            if (attributes.has("volume")) {
-                JsonNode volumeNode = attributes.get("volume");
-                if (volumeNode != null && !volumeNode.isNull()) {
-                    chapter.setVolume(volumeNode.asText());
-                }
+    /**
+     * Schedule the next attempt as the RetryPolicy says, or give up (and
+     * answer from the stale cache, if any) once it says not to retry.
+     */
+    private <T> void retryOrFail(Call<T> call, int attempt, Throwable failure, long retryAfterNanos) {
+        if (!RetryPolicy.shouldRetry(attempt, retryAfterNanos)) {
+            fail(call, failure);
+            return;
+        }
+        long delayNanos = RetryPolicy.delayNanos(attempt, retryAfterNanos);
+        System.err.printf("Request failed (%s), retry %d/%d in %d ms%n",
+                failure.getMessage(), attempt + 1, RetryPolicy.MAX_RETRIES,
+                TimeUnit.NANOSECONDS.toMillis(delayNanos));
+
+        CompletableFuture<Void> delay = CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, parseExecutor));
+        call.inFlight.set(delay);
+        delay.thenRun(() -> attempt(call, attempt + 1));
+    }
+
+    /**
+     * Out of retries (or the circuit is open): answer from the stale cached
+     * copy if there is one, rather than failing.
+     */
+    private <T> void fail(Call<T> call, Throwable failure) {
+        if (call.cached != null) {
+            try (InputStream body = call.cached.openBody()) {
+                T value = call.parser.parse(body);
+                System.err.println("Serving stale cached response for " + call.url + " (" + failure.getMessage()
+                        + ")");
+                call.result.complete(value);
+                return;
+            } catch (IOException e) {
+                failure.addSuppressed(e);
             }
+        }
+        call.result.completeExceptionally(failure);
+    }
 
-            if (attributes.has("publishAt")) {
-                JsonNode publishAtNode = attributes.get("publishAt");
-                if (publishAtNode != null && !publishAtNode.isNull()) {
-                    String publishAt = publishAtNode.asText();
-                    try {
-                        chapter.setReleaseDate(LocalDateTime.parse(publishAt,
-                                DateTimeFormatter.ISO_DATE_TIME));
-                    } catch (Exception e) {
-                        System.err.println("Error parsing publish date: " + e.getMessage());
-                    }
-                }
+    /**
+     * Keep the metadata later requests need (reading format for the feed)
+     * from every manga this source parses.
+     */
+    private List<Manga> remember(List<Manga> mangas) {
+        for (Manga manga : mangas) {
+            if (manga.getId() != null && manga.getReadingFormat() != null) {
+                readingFormats.put(manga.getId(), manga.getReadingFormat());
             }
         }
+        return mangas;
+    }
+
+    /**
+     * Blocking bridge for the synchronous MangaSource methods: keeps their
+     * original behaviour of logging the failure and returning a default value.
+     */
+    private static <T> T await(CompletableFuture<T> future, T fallback) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            System.err.println("MangaDex request failed: " + cause.getMessage());
+            cause.printStackTrace();
+            return fallback;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResponseParser<T> {
+        T parse(InputStream body) throws IOException;
+    }
+
+    /**
+     * An at-home manifest and when it was fetched
+     */
+    private static final class PageManifest {
+        private final MangaDexJsonParser.AtHomeManifest manifest;
+        private final long fetchedAt = System.nanoTime();
 
-        return chapter;
+        private PageManifest(MangaDexJsonParser.AtHomeManifest manifest) {
+            this.manifest = manifest;
+        }
+
+        private boolean isValid() {
+            return System.nanoTime() - fetchedAt < AT_HOME_TTL.toNanos();
+        }
+    }
+
+    /**
+     * State shared by every attempt of one request
+     */
+    private static final class Call<T> {
+        private final String url;
+        private final ResponseParser<T> parser;
+        private final HttpResponseCache.Entry cached;
+        private final CompletableFuture<T> result;
+        private final AtomicReference<CompletableFuture<?>> inFlight;
+
+        private Call(String url, ResponseParser<T> parser, HttpResponseCache.Entry cached,
+                CompletableFuture<T> result, AtomicReference<CompletableFuture<?>> inFlight) {
+            this.url = url;
+            this.parser = parser;
+            this.cached = cached;
+            this.result = result;
+            this.inFlight = inFlight;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,144 @@
+package com.mangareader.prototype.source.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of the MangaDex tag catalogue (/manga/tag): tags by
+ * lowercase name and by id, plus the tags of each group ("genre", "theme",
+ * "format", "content"), so include/exclude filters resolve with a map lookup.
+ *
+ * Publication demographics (Shounen, Shoujo, Seinen, Josei) are not tags on
+ * MangaDex but a separate filter; they are indexed here as the
+ * "demographic" group so the UI can offer them alongside the tags.
+ */
+final class MangaDexTagCatalog {
+    static final String DEMOGRAPHIC_GROUP = "demographic";
+
+    // Display order of the groups; unknown groups go last
+    private static final List<String> GROUP_ORDER = List.of("genre", "theme", "format", DEMOGRAPHIC_GROUP,
+            "content");
+
+    private final Map<String, Tag> byName;
+    private final Map<String, Tag> byId;
+    private final Map<String, List<Tag>> byGroup;
+    private final List<String> names;
+
+    MangaDexTagCatalog(List<Tag> tags) {
+        List<Tag> all = new ArrayList<>();
+        for (Tag tag : tags) {
+            if (tag.id != null && tag.name != null) {
+                all.add(tag);
+            }
+        }
+        all.addAll(demographics());
+        all.sort(Comparator.comparingInt((Tag tag) -> groupRank(tag.group))
+                .thenComparing(tag -> tag.name, String.CASE_INSENSITIVE_ORDER));
+
+        Map<String, Tag> names = new HashMap<>();
+        Map<String, Tag> ids = new HashMap<>();
+        Map<String, List<Tag>> groups = new LinkedHashMap<>();
+        List<String> displayNames = new ArrayList<>();
+        for (Tag tag : all) {
+            if (names.putIfAbsent(tag.name.toLowerCase(), tag) == null) {
+                displayNames.add(tag.name);
+            }
+            ids.put(tag.id, tag);
+            groups.computeIfAbsent(tag.group, group -> new ArrayList<>()).add(tag);
+        }
+        groups.replaceAll((group, members) -> List.copyOf(members));
+
+        this.byName = Map.copyOf(names);
+        this.byId = Map.copyOf(ids);
+        this.byGroup = Collections.unmodifiableMap(groups);
+        this.names = List.copyOf(displayNames);
+    }
+
+    /**
+     * The catalogue the app shipped with, used until (or if) /manga/tag
+     * cannot be loaded
+     */
+    static MangaDexTagCatalog builtIn() {
+        return new MangaDexTagCatalog(List.of(
+                new Tag("391b0423-d847-456f-aff0-8b0cfc03066b", "Action", "genre"),
+                new Tag("87cc87cd-a395-47af-b27a-93258283bbc6", "Adventure", "genre"),
+                new Tag("4d32cc48-9f00-4cca-9b5a-a839f0764984", "Comedy", "genre"),
+                new Tag("b9af3a63-f058-46de-a9a0-e0c13906197a", "Drama", "genre"),
+                new Tag("cdc58593-87dd-415e-bbc0-2ec27bf404cc", "Fantasy", "genre"),
+                new Tag("cdad7e68-1419-41dd-bdce-27753074a640", "Horror", "genre"),
+                new Tag("ee968100-4191-4968-93d3-f82d72be7e46", "Mystery", "genre"),
+                new Tag("3b60b75c-a2d7-4860-ab56-05f391bb889c", "Psychological", "genre"),
+                new Tag("423e2eae-a7a2-4a8b-ac03-a8351462d71d", "Romance", "genre"),
+                new Tag("256c8bd9-4904-4360-bf4f-508a76d67183", "Sci-Fi", "genre"),
+                new Tag("e5301a23-ebd9-49dd-a0cb-2add944c7fe9", "Slice of Life", "genre"),
+                new Tag("69964a64-2f90-4d33-beeb-f3ed2875eb4c", "Sports", "genre"),
+                new Tag("07251805-a27e-4d59-b488-f0bfbec15168", "Thriller", "genre"),
+                new Tag("33771934-028e-4cb3-8744-691e866a923e", "Historical", "genre"),
+                new Tag("c8cbe35b-1b2b-4a3f-9c37-db84c4514856", "Medical", "genre"),
+                new Tag("eabc5b4c-6aff-42f3-b657-3e90cbd00b75", "Supernatural", "theme"),
+                new Tag("caaa44eb-cd40-4177-b930-79d3ef2afe87", "School Life", "theme"),
+                new Tag("799c202e-7daa-44eb-9cf7-8a3c0441531e", "Martial Arts", "theme"),
+                new Tag("f8f62932-27da-4fe4-8ee1-6779a8c5edba", "Music", "theme"),
+                new Tag("ac72833b-c4e9-4878-b9db-6c8a4a99444a", "Military", "theme")));
+    }
+
+    Tag findByName(String name) {
+        return name != null ? byName.get(name.toLowerCase()) : null;
+    }
+
+    Tag findById(String id) {
+        return id != null ? byId.get(id) : null;
+    }
+
+    Map<String, List<Tag>> getGroups() {
+        return byGroup;
+    }
+
+    /**
+     * Tag names in display order (by group, then alphabetically)
+     */
+    List<String> getNames() {
+        return names;
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    private static List<Tag> demographics() {
+        return List.of(
+                new Tag("shounen", "Shounen", DEMOGRAPHIC_GROUP),
+                new Tag("shoujo", "Shoujo", DEMOGRAPHIC_GROUP),
+                new Tag("seinen", "Seinen", DEMOGRAPHIC_GROUP),
+                new Tag("josei", "Josei", DEMOGRAPHIC_GROUP));
+    }
+
+    private static int groupRank(String group) {
+        int index = GROUP_ORDER.indexOf(group);
+        return index >= 0 ? index : GROUP_ORDER.size();
+    }
+
+    /**
+     * One tag: its MangaDex id, English name and group
+     */
+    static final class Tag {
+        final String id;
+        final String name;
+        final String group;
+
+        Tag(String id, String name, String group) {
+            this.id = id;
+            this.name = name;
+            this.group = group != null ? group : "other";
+        }
+
+        boolean isDemographic() {
+            return DEMOGRAPHIC_GROUP.equals(group);
+        }
+    }
+}
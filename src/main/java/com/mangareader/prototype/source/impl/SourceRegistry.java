@@ -0,0 +1,75 @@
+package com.mangareader.prototype.source.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mangareader.prototype.source.MangaSource;
+
+/**
+ * SourceRegistry holds the sources the app works with, built once from the
+ * system properties so every view and service uses the same instances:
+ *
+ * - the online source: MangaDex, or recorded fixtures standing in for it
+ *   with -Dmangareader.fixtures=<dir> (see FixtureMangaSource)
+ * - the local archives with -Dmangareader.archives=<dir> (see
+ *   LocalArchiveSource)
+ */
+public class SourceRegistry {
+    private static final SourceRegistry instance = new SourceRegistry();
+
+    private final MangaSource onlineSource;
+    private final LocalArchiveSource localSource;
+
+    private SourceRegistry() {
+        MangaDexSource mangaDex = new MangaDexSource();
+        MangaSource fixtures = FixtureMangaSource.fromSystemProperties(mangaDex);
+        this.onlineSource = fixtures != null ? fixtures : mangaDex;
+        this.localSource = LocalArchiveSource.fromSystemProperties();
+    }
+
+    public static SourceRegistry getInstance() {
+        return instance;
+    }
+
+    public MangaSource getOnlineSource() {
+        return onlineSource;
+    }
+
+    /**
+     * The local archive source, or null when archives are not enabled
+     */
+    public LocalArchiveSource getLocalSource() {
+        return localSource;
+    }
+
+    /**
+     * Every enabled source, the online one first
+     */
+    public List<MangaSource> getSources() {
+        List<MangaSource> sources = new ArrayList<>();
+        sources.add(onlineSource);
+        if (localSource != null) {
+            sources.add(localSource);
+        }
+        return sources;
+    }
+
+    /**
+     * The source a manga id belongs to: local archives for "local:" ids,
+     * the online source for everything else
+     */
+    public MangaSource getSourceFor(String mangaId) {
+        if (localSource != null && LocalArchiveSource.isLocalId(mangaId)) {
+            return localSource;
+        }
+        return onlineSource;
+    }
+
+    /**
+     * MangaDex itself, or fixtures recorded from it: the sources with a
+     * popular list and MangaDex's advanced filters
+     */
+    public static boolean isMangaDex(MangaSource source) {
+        return source instanceof MangaDexSource || source instanceof FixtureMangaSource;
+    }
+}
@@ -1,11 +1,5 @@
 package com.mangareader.prototype.ui.component;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import com.mangareader.prototype.source.MangaSource;
-import com.mangareader.prototype.source.impl.MangaDexSource;
-
 import javafx.geometry.Insets;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
@@ -24,7 +18,6 @@ import javafx.scene.paint.Color;
 public class Sidebar extends VBox implements ThemeManager.ThemeChangeListener {
     private final ListView<String> libraryList;
     private final TreeView<String> navigationTree;
-    private final List<MangaSource> sources;
     private final ThemeManager themeManager;
 
     public Sidebar() {
@@ -37,9 +30,6 @@ public class Sidebar extends VBox implements ThemeManager.ThemeChangeListener {
         setSpacing(15);
         setPadding(new Insets(15));
 
-        sources = new ArrayList<>();
-        sources.add(new MangaDexSource());
-
         navigationTree = createNavigationTree();
 
         libraryList = createLibraryList();
@@ -7,8 +7,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -16,14 +22,18 @@ import com.mangareader.prototype.model.Manga;
 import com.mangareader.prototype.model.SearchParams;
 import com.mangareader.prototype.model.SearchResult;
 import com.mangareader.prototype.source.MangaSource;
-import com.mangareader.prototype.source.impl.MangaDexSource;
+import com.mangareader.prototype.source.SearchAggregator;
+import com.mangareader.prototype.source.impl.SourceRegistry;
 import com.mangareader.prototype.ui.component.ThemeManager;
 import com.mangareader.prototype.ui.dialog.AddSeriesModal;
 import com.mangareader.prototype.util.ImageCache;
+import com.mangareader.prototype.util.SearchCache;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
@@ -46,19 +56,28 @@ import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.TextAlignment;
+import javafx.util.Duration;
 
 public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListener {
     private final ComboBox<MangaSource> sourceSelector;
     private final TextField searchField;
     private final Button searchButton;
     private final CheckBox nsfwCheckbox;
+    private final CheckBox allSourcesCheckbox;
+    private final CheckBox infiniteScrollCheckbox;
     private final GridPane mangaGrid;
     private final List<MangaSource> sources;
+    private final SearchAggregator searchAggregator;
+    // Set while the grid shows merged results, to know which source each came from
+    private SearchAggregator.Snapshot aggregatedResults;
     private final ScrollPane scrollPane;
     private final ThemeManager themeManager;
     private int columns = 5;
     private List<Manga> currentResults = new ArrayList<>();
     private final Map<String, VBox> mangaNodeCache = new HashMap<>();
+    // Grid cell of each result index; only touched on the FX thread
+    // Written on the FX thread; cover loads read it to skip slots that were replaced
+    private final Map<Integer, Node> gridNodes = new ConcurrentHashMap<>();
     private Consumer<Manga> onMangaSelectedCallback;
 
     private Pagination pagination;
@@ -72,6 +91,39 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
     private final int MAX_COLUMNS = 6;
 
     private final ExecutorService executorService = Executors.newFixedThreadPool(3);
+    // Covers of the adjacent search pages; one thread so it never competes much with visible covers
+    private final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-prefetch");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    // Only touched on the FX thread
+    private final List<Future<?>> coverLoads = new ArrayList<>();
+    private final List<CompletableFuture<SearchResult>> prefetchSearches = new ArrayList<>();
+    private final List<Future<?>> prefetchTasks = new ArrayList<>();
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(350);
+    // Infinite scroll: rows further than this outside the viewport give up their cards
+    private static final int RECYCLE_MARGIN_ROWS = 3;
+    // ...and the next page is requested when fewer rows than this are left below it
+    private static final int LOAD_MORE_ROWS = 2;
+    private static final String RECYCLED = "recycled";
+
+    // Only touched on the FX thread
+    private CompletableFuture<?> pendingSearch;
+    private String pendingSearchKey;
+    private final PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+    private final SearchCache searchCache = SearchCache.getInstance();
+    // The search whose results are in the grid
+    private String shownSearchKey;
+    // The search infinite scroll appends pages of, and the last page appended
+    private MangaSource scrollSource;
+    private SearchParams scrollParams;
+    private SearchResult lastScrollPage;
+    private CompletableFuture<SearchResult> loadingMore;
+    // Rows whose cards were materialized by the last scroll update; -1 when the grid was rebuilt since
+    private int windowFirstRow = -1;
+    private int windowLastRow = -1;
 
     private Button advancedSearchButton;
     private VBox advancedSearchPane;
@@ -93,8 +145,8 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
         setPadding(new Insets(24));
         setAlignment(Pos.TOP_CENTER);
 
-        sources = new ArrayList<>();
-        sources.add(new MangaDexSource());
+        sources = SourceRegistry.getInstance().getSources();
+        searchAggregator = new SearchAggregator(sources);
 
         sourceSelector = new ComboBox<>();
         sourceSelector.getItems().addAll(sources);
@@ -117,7 +169,7 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
         if (!sources.isEmpty()) {
             sourceSelector.getSelectionModel().selectFirst();
             MangaSource firstSource = sources.get(0);
-            if ("mangadex".equals(firstSource.getId())) {
+            if (SourceRegistry.isMangaDex(firstSource)) {
                 Platform.runLater(() -> autoLoadMangaDexContent());
             }
         }
@@ -139,7 +191,7 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
                         currentPage = 1;
                         pagination.setCurrentPageIndex(0);
                         performAdvancedSearch();
-                    } else if ("mangadex".equals(newVal.getId())) {
+                    } else if (SourceRegistry.isMangaDex(newVal)) {
                         autoLoadMangaDexContent();
                     }
                 }
@@ -188,7 +240,33 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
             searchParams.setIncludeNsfw(newVal);
         });
 
-        HBox searchBox = new HBox(8, sourceSelector, searchField, searchButton, advancedSearchButton, nsfwCheckbox);
+        infiniteScrollCheckbox = new CheckBox("Infinite scroll");
+        infiniteScrollCheckbox.setTooltip(new Tooltip("Load more results while scrolling instead of by page"));
+        infiniteScrollCheckbox.setStyle("-fx-font-size: 14px; -fx-text-fill: #666;");
+
+        allSourcesCheckbox = new CheckBox("All sources");
+        allSourcesCheckbox.setTooltip(new Tooltip("Search every source at once"));
+        allSourcesCheckbox.setStyle("-fx-font-size: 14px; -fx-text-fill: #666;");
+        allSourcesCheckbox.setDisable(sources.size() < 2);
+        allSourcesCheckbox.selectedProperty().addListener((obs, oldVal, newVal) -> {
+            sourceSelector.setDisable(newVal);
+            // Merged results have no next page of their own to append, so they are only paged
+            infiniteScrollCheckbox.setDisable(newVal);
+            if (newVal && infiniteScrollCheckbox.isSelected()) {
+                // Its listener brings the pagination back and searches again
+                infiniteScrollCheckbox.setSelected(false);
+                return;
+            }
+            if (!searchField.getText().trim().isEmpty()) {
+                searchParams.setPage(1);
+                currentPage = 1;
+                pagination.setCurrentPageIndex(0);
+                performAdvancedSearch();
+            }
+        });
+
+        HBox searchBox = new HBox(8, sourceSelector, searchField, searchButton, advancedSearchButton, nsfwCheckbox,
+                allSourcesCheckbox, infiniteScrollCheckbox);
         searchBox.setAlignment(Pos.CENTER_LEFT);
 
         setupAdvancedSearchPane();
@@ -210,6 +288,14 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
             }
         });
 
+        infiniteScrollCheckbox.selectedProperty().addListener((obs, oldVal, newVal) -> {
+            pagination.setVisible(!newVal);
+            pagination.setManaged(!newVal);
+            if (!currentResults.isEmpty()) {
+                reloadFromFirstPage();
+            }
+        });
+
         HBox paginationBox = new HBox(20, resultsCountLabel, pagination);
         paginationBox.setAlignment(Pos.CENTER_LEFT);
         paginationBox.setPadding(new Insets(10, 0, 10, 0));
@@ -225,30 +311,29 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
         VBox.setVgrow(scrollPane, Priority.ALWAYS);
 
         widthProperty().addListener((obs, oldVal, newVal) -> updateGridColumns());
-        scrollPane.viewportBoundsProperty().addListener((obs, oldVal, newVal) -> updateGridColumns());
+        scrollPane.viewportBoundsProperty().addListener((obs, oldVal, newVal) -> {
+            updateGridColumns();
+            updateScrolledCards();
+        });
+        scrollPane.vvalueProperty().addListener((obs, oldVal, newVal) -> updateScrolledCards());
+        // Appended rows only have a height after layout
+        mangaGrid.heightProperty().addListener((obs, oldVal, newVal) -> updateScrolledCards());
         updateGridColumns();
 
         updateMangaGridWithPlaceholders();
 
-        searchButton.setOnAction(e -> {
-            String query = searchField.getText().trim();
-            searchParams.setQuery(query);
-            searchParams.setPage(1);
-            searchParams.setLimit(itemsPerPage);
-            currentPage = 1;
-            pagination.setCurrentPageIndex(0);
-            performAdvancedSearch();
-        });
+        searchButton.setOnAction(e -> searchNow());
+        searchField.setOnAction(e -> searchNow());
 
-        searchField.setOnAction(e -> {
+        // Search as you type, once the user pauses
+        searchDebounce.setOnFinished(e -> {
             String query = searchField.getText().trim();
-            searchParams.setQuery(query);
-            searchParams.setPage(1);
-            searchParams.setLimit(itemsPerPage);
-            currentPage = 1;
-            pagination.setCurrentPageIndex(0);
-            performAdvancedSearch();
+            if (query.equals(searchParams.getQuery() != null ? searchParams.getQuery() : "")) {
+                return;
+            }
+            reloadFromFirstPage();
         });
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> searchDebounce.playFromStart());
 
         VBox contentBox = new VBox(10,
                 searchBox,
@@ -267,7 +352,7 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
 
         Platform.runLater(() -> {
             MangaSource selectedSource = sourceSelector.getValue();
-            if (selectedSource != null && "mangadex".equals(selectedSource.getId())) {
+            if (selectedSource != null && SourceRegistry.isMangaDex(selectedSource)) {
                 autoLoadMangaDexContent();
             }
         });
@@ -285,6 +370,11 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
         genreSelector.setVgap(8);
         genreSelector.setPrefWrapLength(800);
 
+        ScrollPane genreScroll = new ScrollPane(genreSelector);
+        genreScroll.setFitToWidth(true);
+        genreScroll.setMaxHeight(220);
+        genreScroll.setStyle("-fx-background-color: transparent; -fx-background: transparent;");
+
         Label statusLabel = new Label("Status");
         statusLabel.getStyleClass().add("filter-label");
 
@@ -318,7 +408,7 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
 
         advancedSearchPane.getChildren().addAll(
                 genreLabel,
-                genreSelector,
+                genreScroll,
                 new Separator(),
                 statusLabel,
                 statusSelector,
@@ -342,14 +432,27 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
     }
 
     private void updateGenreFilters(MangaSource source) {
+        // The full tag list may need a request, so it is filled in once loaded
+        source.getAvailableGenresAsync().whenComplete((genres, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.err.println("Error loading genres: " + error.getMessage());
+                return;
+            }
+            if (source == sourceSelector.getValue()) {
+                showGenreFilters(genres);
+            }
+        }));
+    }
+
+    private void showGenreFilters(List<String> genres) {
         genreSelector.getChildren().clear();
         genreCheckboxes.clear();
 
-        List<String> genres = source.getAvailableGenres();
         String textColor = themeManager.getTextColor();
 
         for (String genre : genres) {
             CheckBox genreCheck = new CheckBox(genre);
+            genreCheck.setSelected(searchParams.getIncludedGenres().contains(genre));
             genreCheck.setStyle(String.format(
                     "-fx-text-fill: %s; " +
                             "-fx-padding: 5px;",
@@ -434,13 +537,16 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
         if (newColumns != columns) {
             columns = newColumns;
             if (!currentResults.isEmpty()) {
-                Platform.runLater(() -> updateMangaGridWithResults(currentResults));
+                Platform.runLater(this::relayoutGrid);
             }
         }
     }
 
     private void updateMangaGridWithPlaceholders() {
+        shownSearchKey = null;
+        cancelCoverLoads();
         mangaGrid.getChildren().clear();
+        gridNodes.clear();
 
         ProgressIndicator progressIndicator = new ProgressIndicator();
         progressIndicator.setMaxSize(60, 60);
@@ -454,9 +560,16 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
     }
 
     private void performAdvancedSearch() {
+        if (allSourcesCheckbox.isSelected()) {
+            performAggregatedSearch();
+            return;
+        }
+        aggregatedResults = null;
+
         MangaSource selectedSource = sourceSelector.getValue();
         if (selectedSource == null) {
             mangaGrid.getChildren().clear();
+            gridNodes.clear();
             Label selectSourceLabel = new Label("Please select a manga source first");
             selectSourceLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: #ff6b6b; -fx-font-weight: bold;");
             VBox messageBox = new VBox(selectSourceLabel);
@@ -466,36 +579,307 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
             return;
         }
 
+        SearchParams params = searchParams.copy();
+        String key = SearchCache.key(selectedSource, params);
+        if (key.equals(pendingSearchKey) && pendingSearch != null && !pendingSearch.isDone()) {
+            return; // the same search is already running
+        }
+
+        CompletableFuture<SearchResult> search = searchCache.get(selectedSource, params,
+                fresh -> Platform.runLater(() -> {
+                    if (key.equals(shownSearchKey)) {
+                        showSearchResult(selectedSource, params, fresh, "Found %d results");
+                    }
+                }));
+        if (search.isDone() && !search.isCompletedExceptionally()) {
+            // Backspacing to an earlier query or paging back: no request needed
+            trackPendingSearch(null);
+            showSearchResult(selectedSource, params, search.join(), "Found %d results");
+            return;
+        }
+
         updateMangaGridWithPlaceholders();
+        trackPendingSearch(search);
+        pendingSearchKey = key;
+        search.whenComplete((result, error) -> Platform.runLater(() -> {
+            // A newer search has replaced this one; its results must not overwrite the newer ones
+            if (search.isCancelled() || pendingSearch != search) {
+                return;
+            }
+            if (error == null) {
+                showSearchResult(selectedSource, params, result, "Found %d results");
+                return;
+            }
+            System.err.println("Advanced search failed, falling back to basic search: " + error.getMessage());
+            CompletableFuture<List<Manga>> fallback = selectedSource.searchAsync(params.getQuery(),
+                    params.isIncludeNsfw());
+            trackPendingSearch(fallback);
+            fallback.whenComplete((results, fallbackError) -> Platform.runLater(() -> {
+                if (fallback.isCancelled() || pendingSearch != fallback) {
+                    return;
+                }
+                List<Manga> mangas = results != null ? results : new ArrayList<>();
+                shownSearchKey = null;
+                resultsCountLabel.setText(String.format("Found %d results", mangas.size()));
+                pagination.setPageCount(1);
+                pagination.setCurrentPageIndex(0);
+                updateMangaGridWithResults(mangas);
+            }));
+        }));
+    }
 
-        new Thread(() -> {
-            try {
-                SearchResult result = selectedSource.advancedSearch(searchParams);
-                Platform.runLater(() -> {
-                    currentPage = result.getCurrentPage();
-                    totalPages = result.getTotalPages();
-                    pagination.setPageCount(totalPages);
-                    pagination.setCurrentPageIndex(currentPage - 1); // Convert from 1-based to 0-based
-                    resultsCountLabel.setText(String.format("Found %d results", result.getTotalResults()));
+    /**
+     * Search for the text in the search field, starting at page 1
+     */
+    private void searchNow() {
+        searchDebounce.stop();
+        searchParams.setQuery(searchField.getText().trim());
+        searchParams.setPage(1);
+        searchParams.setLimit(itemsPerPage);
+        currentPage = 1;
+        pagination.setCurrentPageIndex(0);
+        performAdvancedSearch();
+    }
 
-                    updateMangaGridWithResults(result.getResults());
-                });
-            } catch (Exception e) {
-                System.err.println("Advanced search failed, falling back to basic search: " + e.getMessage());
-                List<Manga> results = selectedSource.search(searchParams.getQuery(), searchParams.isIncludeNsfw());
-                Platform.runLater(() -> {
-                    resultsCountLabel.setText(String.format("Found %d results", results.size()));
-                    pagination.setPageCount(1);
-                    pagination.setCurrentPageIndex(0);
-                    updateMangaGridWithResults(results);
-                });
+    /**
+     * Search again from page 1: the popular list for an empty MangaDex query,
+     * the search field's text otherwise
+     */
+    private void reloadFromFirstPage() {
+        MangaSource selectedSource = sourceSelector.getValue();
+        if (searchField.getText().trim().isEmpty() && selectedSource != null
+                && SourceRegistry.isMangaDex(selectedSource) && !allSourcesCheckbox.isSelected()) {
+            autoLoadMangaDexContent();
+        } else {
+            searchNow();
+        }
+    }
+
+    /**
+     * Show one page of results and start prefetching the pages around it
+     *
+     * @param countFormat label text, with %d for the result count
+     */
+    private void showSearchResult(MangaSource source, SearchParams params, SearchResult result,
+            String countFormat) {
+        // Remembered so a revalidated result can replace it while it is still on screen
+        shownSearchKey = SearchCache.key(source, params);
+        currentPage = result.getCurrentPage();
+        totalPages = result.getTotalPages();
+        pagination.setPageCount(totalPages);
+        pagination.setCurrentPageIndex(currentPage - 1); // Convert from 1-based to 0-based
+        resultsCountLabel.setText(String.format(countFormat, result.getTotalResults()));
+
+        if (infiniteScrollCheckbox.isSelected()) {
+            scrollSource = source;
+            scrollParams = params;
+            lastScrollPage = result;
+        }
+        updateMangaGridWithResults(result.getResults());
+        if (infiniteScrollCheckbox.isSelected()) {
+            scrollPane.setVvalue(0);
+        }
+        prefetchAdjacentPages(source, params, result);
+    }
+
+    /**
+     * Infinite scroll: request the page after the last one appended
+     */
+    private void loadNextPage() {
+        if (scrollSource == null || loadingMore != null || !lastScrollPage.hasNextPage()) {
+            return;
+        }
+        MangaSource source = scrollSource;
+        SearchParams next = scrollParams.copy();
+        next.setPage(lastScrollPage.getCurrentPage() + 1);
+
+        CompletableFuture<SearchResult> load = searchCache.get(source, next, null);
+        loadingMore = load;
+        load.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (loadingMore != load) {
+                return;
+            }
+            loadingMore = null;
+            if (error != null) {
+                // Retried on the next scroll
+                System.err.println("Failed to load page " + next.getPage() + ": " + error.getMessage());
+                return;
+            }
+            appendSearchResult(source, next, result);
+        }));
+    }
+
+    /**
+     * Add a page's cards after the ones already in the grid, which stay as
+     * they are
+     */
+    private void appendSearchResult(MangaSource source, SearchParams params, SearchResult result) {
+        Set<String> shownIds = currentResults.stream()
+                .map(Manga::getId)
+                .collect(Collectors.toSet());
+        // Pages can overlap when the ranking shifts between requests; a card can only be shown once
+        List<Manga> added = result.getResults().stream()
+                .filter(manga -> shownIds.add(manga.getId()))
+                .collect(Collectors.toList());
+
+        int startIndex = currentResults.size();
+        List<Manga> results = new ArrayList<>(currentResults);
+        results.addAll(added);
+        currentResults = results;
+        lastScrollPage = result;
+        currentPage = result.getCurrentPage();
+        // The grid no longer shows a single cached search
+        shownSearchKey = null;
+        resultsCountLabel.setText(String.format("Showing %d of %d results", results.size(),
+                result.getTotalResults()));
+
+        // The earlier pages' covers are still on screen: keep their loads going
+        coverLoads.removeIf(Future::isDone);
+        addCards(added, startIndex);
+        prefetchAdjacentPages(source, params, result);
+    }
+
+    private void resetInfiniteScroll() {
+        scrollSource = null;
+        scrollParams = null;
+        lastScrollPage = null;
+        if (loadingMore != null) {
+            loadingMore.cancel(true);
+            loadingMore = null;
+        }
+    }
+
+    /**
+     * Fetch the next and previous page into the SearchCache, then warm their
+     * covers into the ImageCache, so flipping pages does not wait for the
+     * network. Cover prefetches run on one low-priority thread and only after
+     * the visible page's covers are done; everything is cancelled when a new
+     * search starts.
+     */
+    private void prefetchAdjacentPages(MangaSource source, SearchParams params, SearchResult result) {
+        cancelPrefetch();
+        List<Future<?>> visibleCovers = new ArrayList<>(coverLoads);
+        for (int page : new int[] { result.getCurrentPage() + 1, result.getCurrentPage() - 1 }) {
+            if (page < 1 || page > result.getTotalPages()) {
+                continue;
             }
-        }).start();
+            SearchParams adjacent = params.copy();
+            adjacent.setPage(page);
+            CompletableFuture<SearchResult> prefetch = searchCache.get(source, adjacent, null);
+            prefetchSearches.add(prefetch);
+            prefetch.thenAccept(adjacentResult -> Platform.runLater(() -> {
+                if (prefetchSearches.contains(prefetch)) {
+                    prefetchCovers(adjacentResult, visibleCovers);
+                }
+            }));
+        }
+    }
+
+    private void prefetchCovers(SearchResult result, List<Future<?>> visibleCovers) {
+        for (Manga manga : result.getResults()) {
+            String coverUrl = manga.getCoverUrl();
+            if (coverUrl == null || coverUrl.isEmpty()) {
+                continue;
+            }
+            prefetchTasks.add(prefetchExecutor.submit(() -> {
+                try {
+                    for (Future<?> visible : visibleCovers) {
+                        try {
+                            visible.get();
+                        } catch (ExecutionException | CancellationException e) {
+                            // Failed or skipped covers are not our concern here
+                        }
+                    }
+                    ImageCache.getInstance().prefetchImage(coverUrl, CARD_WIDTH, CARD_HEIGHT);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+    }
+
+    /**
+     * The grid is being replaced: stop loading covers for the old cards, so
+     * the new ones do not queue behind them on the three cover threads
+     */
+    private void cancelCoverLoads() {
+        coverLoads.forEach(load -> load.cancel(true));
+        coverLoads.clear();
+    }
+
+    private void cancelPrefetch() {
+        prefetchSearches.forEach(prefetch -> prefetch.cancel(true));
+        prefetchSearches.clear();
+        prefetchTasks.forEach(task -> task.cancel(true));
+        prefetchTasks.clear();
+    }
+
+    /**
+     * Search every source at once. Results are merged and shown as each
+     * source answers, so a slow source only delays its own results.
+     */
+    private void performAggregatedSearch() {
+        updateMangaGridWithPlaceholders();
+
+        AtomicReference<CompletableFuture<SearchAggregator.Snapshot>> searchRef = new AtomicReference<>();
+        CompletableFuture<SearchAggregator.Snapshot> search = searchAggregator.search(searchParams.copy(),
+                snapshot -> Platform.runLater(() -> {
+                    if (pendingSearch != searchRef.get()) {
+                        return;
+                    }
+                    showAggregatedResults(snapshot);
+                }));
+        searchRef.set(search);
+        trackPendingSearch(search);
+    }
+
+    private void showAggregatedResults(SearchAggregator.Snapshot snapshot) {
+        int sourceCount = searchAggregator.getSources().size();
+        String progress = snapshot.isComplete()
+                ? snapshot.getSourcesAnswered() + " of " + sourceCount + " sources"
+                : "waiting for " + (sourceCount - snapshot.getSourcesAnswered() - snapshot.getFailedSources().size())
+                        + " more sources";
+        if (!snapshot.getFailedSources().isEmpty()) {
+            progress += ", no answer from " + String.join(", ", snapshot.getFailedSources());
+        }
+
+        if (snapshot.getResults().isEmpty() && !snapshot.isComplete()) {
+            resultsCountLabel.setText("Searching (" + progress + ")");
+            return;
+        }
+
+        aggregatedResults = snapshot;
+        shownSearchKey = null;
+        totalPages = snapshot.getTotalPages();
+        pagination.setPageCount(totalPages);
+        pagination.setCurrentPageIndex(currentPage - 1);
+        resultsCountLabel.setText(String.format("Found %d results (%s)", snapshot.getResults().size(), progress));
+        updateMangaGridWithResults(snapshot.getResults());
+    }
+
+    /**
+     * Only the latest search matters: cancelling the previous one also aborts
+     * its HTTP request so it stops holding rate limiter permits.
+     */
+    private void trackPendingSearch(CompletableFuture<?> search) {
+        CompletableFuture<?> previous = pendingSearch;
+        pendingSearch = search;
+        pendingSearchKey = null;
+        resetInfiniteScroll();
+        if (search != null) {
+            cancelPrefetch();
+        }
+        if (previous != null && previous != search) {
+            previous.cancel(true);
+        }
     }
 
     private void updateMangaGridWithResults(List<Manga> mangaList) {
         currentResults = mangaList;
+        cancelCoverLoads();
         mangaGrid.getChildren().clear();
+        gridNodes.clear();
+        windowFirstRow = -1;
 
         if (mangaList.isEmpty()) {
             Label noResultsLabel = new Label("No results found");
@@ -505,66 +889,147 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
             return;
         }
 
-        List<Runnable> coverLoadTasks = new ArrayList<>();
+        addCards(mangaList, 0);
+        cleanupCache();
+    }
 
-        int gridRow = 0;
-        int gridCol = 0;
+    /**
+     * Put cards for the given results into the grid, starting at a result
+     * index. Cached cards are reused; the others show a placeholder until
+     * their cover is loaded.
+     */
+    private void addCards(List<Manga> mangaList, int startIndex) {
+        List<Runnable> coverLoadTasks = new ArrayList<>();
 
         for (int i = 0; i < mangaList.size(); i++) {
-            final int index = i;
+            int index = startIndex + i;
             Manga manga = mangaList.get(i);
-            String mangaId = manga.getId();
 
-            VBox coverBox = mangaNodeCache.get(mangaId);
+            VBox coverBox = mangaNodeCache.get(manga.getId());
             if (coverBox == null) {
                 coverBox = createLoadingPlaceholder();
-                final VBox finalCoverBox = coverBox;
-
-                coverLoadTasks.add(() -> {
-                    VBox actualCover = createMangaCover(manga);
-                    mangaNodeCache.put(mangaId, actualCover);
-                    Platform.runLater(() -> {
-                        int row = index / columns;
-                        int col = index % columns;
-                        mangaGrid.getChildren().remove(finalCoverBox);
-                        mangaGrid.add(actualCover, col, row);
-                    });
-                });
+                coverLoadTasks.add(coverLoadTask(manga, index, coverBox));
             }
+            setGridNode(index, coverBox);
+        }
 
-            mangaGrid.add(coverBox, gridCol, gridRow);
+        // Cover downloads are paced by the shared RateLimiter inside ImageCache
+        for (Runnable task : coverLoadTasks) {
+            coverLoads.add(executorService.submit(task));
+        }
+    }
 
-            gridCol++;
-            if (gridCol >= columns) {
-                gridCol = 0;
-                gridRow++;
+    private Runnable coverLoadTask(Manga manga, int index, Node placeholder) {
+        return () -> {
+            // Replaced while queued: do not download a cover nobody will see
+            if (gridNodes.get(index) != placeholder) {
+                return;
             }
-        }
+            VBox actualCover = createMangaCover(manga);
+            Platform.runLater(() -> {
+                // The grid was rebuilt or the slot recycled in the meantime
+                if (gridNodes.get(index) != placeholder) {
+                    return;
+                }
+                mangaNodeCache.put(manga.getId(), actualCover);
+                setGridNode(index, actualCover);
+            });
+        };
+    }
 
-        if (!coverLoadTasks.isEmpty()) {
-            executorService.submit(() -> {
-                long lastTaskTime = 0;
-                long minInterval = 50; // Minimum time between tasks in milliseconds
+    private void setGridNode(int index, Node node) {
+        Node previous = gridNodes.put(index, node);
+        if (previous != null) {
+            mangaGrid.getChildren().remove(previous);
+        }
+        mangaGrid.add(node, index % columns, index / columns);
+    }
 
-                for (Runnable task : coverLoadTasks) {
-                    try {
-                        long now = System.currentTimeMillis();
-                        long timeToWait = Math.max(0, minInterval - (now - lastTaskTime));
-                        if (timeToWait > 0) {
-                            Thread.sleep(timeToWait);
-                        }
+    /**
+     * Move the cards to their cells for the current column count, without
+     * recreating them
+     */
+    private void relayoutGrid() {
+        for (Map.Entry<Integer, Node> entry : gridNodes.entrySet()) {
+            GridPane.setConstraints(entry.getValue(), entry.getKey() % columns, entry.getKey() / columns);
+        }
+        // Cards changed rows
+        windowFirstRow = -1;
+        updateScrolledCards();
+    }
 
-                        lastTaskTime = System.currentTimeMillis();
-                        task.run();
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
+    /**
+     * Infinite scroll: cards of rows far outside the viewport are swapped for
+     * empty slots of the same size (dropping their nodes and image views), and
+     * rebuilt when they come back into range, so a long scroll does not keep
+     * every card alive. Only the rows entering or leaving that range since the
+     * last update are touched. Near the bottom, the next page is requested.
+     */
+    private void updateScrolledCards() {
+        if (infiniteScrollCheckbox == null || !infiniteScrollCheckbox.isSelected() || currentResults.isEmpty()
+                || scrollPane.getViewportBounds() == null) {
+            windowFirstRow = -1;
+            return;
+        }
+        double viewportHeight = scrollPane.getViewportBounds().getHeight();
+        double rowHeight = CARD_HEIGHT + 40 + mangaGrid.getVgap();
+        double gridTop = mangaGrid.getPadding().getTop();
+        double top = scrollPane.getVvalue() * Math.max(0, mangaGrid.getHeight() - viewportHeight);
+        int rows = (currentResults.size() + columns - 1) / columns;
+        int firstRow = Math.max(0, (int) Math.floor((top - gridTop) / rowHeight) - RECYCLE_MARGIN_ROWS);
+        int lastRow = Math.min(rows - 1,
+                (int) Math.floor((top + viewportHeight - gridTop) / rowHeight) + RECYCLE_MARGIN_ROWS);
+
+        coverLoads.removeIf(Future::isDone);
+        if (windowFirstRow < 0) {
+            // Nothing is known about the rows yet
+            for (int row = 0; row < rows; row++) {
+                updateScrolledRow(row, row >= firstRow && row <= lastRow);
+            }
+        } else {
+            for (int row = windowFirstRow; row <= windowLastRow && row < rows; row++) {
+                if (row < firstRow || row > lastRow) {
+                    updateScrolledRow(row, false);
                 }
-            });
+            }
+            for (int row = firstRow; row <= lastRow; row++) {
+                if (row < windowFirstRow || row > windowLastRow) {
+                    updateScrolledRow(row, true);
+                }
+            }
         }
+        windowFirstRow = firstRow;
+        windowLastRow = lastRow;
 
-        cleanupCache();
+        double contentHeight = gridTop + rows * rowHeight;
+        if (contentHeight - (top + viewportHeight) < LOAD_MORE_ROWS * rowHeight) {
+            loadNextPage();
+        }
+    }
+
+    /**
+     * Recycle the cards of a row that left the range, or rebuild the
+     * recycled ones of a row that came back into it
+     */
+    private void updateScrolledRow(int row, boolean inRange) {
+        int end = Math.min(currentResults.size(), (row + 1) * columns);
+        for (int index = row * columns; index < end; index++) {
+            Node node = gridNodes.get(index);
+            if (node == null) {
+                continue;
+            }
+            Manga manga = currentResults.get(index);
+            boolean recycled = RECYCLED.equals(node.getUserData());
+            // A row is only visited when it leaves, so a still loading placeholder goes too
+            if (!inRange && !recycled) {
+                mangaNodeCache.remove(manga.getId(), node);
+                setGridNode(index, createRecycledSlot());
+            } else if (inRange && recycled) {
+                VBox placeholder = createLoadingPlaceholder();
+                setGridNode(index, placeholder);
+                coverLoads.add(executorService.submit(coverLoadTask(manga, index, placeholder)));
+            }
+        }
     }
 
     private void cleanupCache() {
@@ -599,6 +1064,18 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
         return box;
     }
 
+    /**
+     * Stand-in for a recycled card: same size, nothing inside
+     */
+    private VBox createRecycledSlot() {
+        VBox box = new VBox();
+        box.setPrefWidth(CARD_WIDTH);
+        box.setPrefHeight(CARD_HEIGHT + 40);
+        box.setStyle("-fx-background-color: #222; -fx-background-radius: 20;");
+        box.setUserData(RECYCLED);
+        return box;
+    }
+
     private VBox createMangaCover(Manga manga) {
         VBox box = new VBox(5);
         box.setAlignment(Pos.TOP_CENTER);
@@ -616,6 +1093,7 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
         imageView.setPreserveRatio(false);
         imageView.setSmooth(true);
         imageView.setCache(true);
+        ImageCache.getInstance().pinWhileDisplayed(imageView);
 
         StackPane imageContainer = new StackPane(imageView);
         imageContainer.setPrefSize(CARD_WIDTH, CARD_HEIGHT);
@@ -679,38 +1157,40 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
         VBox.setMargin(titleBox, new Insets(5, 0, 0, 0));
 
         box.setOnMouseClicked(event -> {
-            MangaSource selectedSource = sourceSelector.getValue();
+            MangaSource selectedSource = aggregatedResults != null && aggregatedResults.getSource(manga) != null
+                    ? aggregatedResults.getSource(manga)
+                    : sourceSelector.getValue();
             if (selectedSource != null) {
                 ProgressIndicator loadingIndicator = new ProgressIndicator();
                 loadingIndicator.setMaxSize(40, 40);
                 imageContainer.getChildren().add(loadingIndicator);
 
-                new Thread(() -> {
-                    try {
-                        selectedSource.getMangaDetails(manga.getId()).ifPresentOrElse(
-                                fullManga -> Platform.runLater(() -> {
-                                    imageContainer.getChildren().remove(loadingIndicator);
-                                    AddSeriesModal modal = new AddSeriesModal(fullManga);
-                                    Optional<Manga> result = modal.showAndAwaitResult();
-                                    if (onMangaSelectedCallback != null && result.isPresent()) {
-                                        onMangaSelectedCallback.accept(result.get());
-                                    }
-                                }),
-                                () -> Platform.runLater(() -> {
-                                    imageContainer.getChildren().remove(loadingIndicator);
-                                    Label errorLabel = new Label("Failed to load details");
-                                    errorLabel.setStyle("-fx-text-fill: #ff6b6b;");
-                                    imageContainer.getChildren().add(errorLabel);
-                                }));
-                    } catch (Exception e) {
+                selectedSource.getMangaDetailsAsync(manga.getId()).whenComplete((details, error) -> {
+                    if (error != null) {
                         Platform.runLater(() -> {
                             imageContainer.getChildren().remove(loadingIndicator);
-                            Label errorLabel = new Label("Error: " + e.getMessage());
+                            Label errorLabel = new Label("Error: " + error.getMessage());
                             errorLabel.setStyle("-fx-text-fill: #ff6b6b;");
                             imageContainer.getChildren().add(errorLabel);
                         });
+                        return;
                     }
-                }).start();
+                    details.ifPresentOrElse(
+                            fullManga -> Platform.runLater(() -> {
+                                imageContainer.getChildren().remove(loadingIndicator);
+                                AddSeriesModal modal = new AddSeriesModal(fullManga);
+                                Optional<Manga> result = modal.showAndAwaitResult();
+                                if (onMangaSelectedCallback != null && result.isPresent()) {
+                                    onMangaSelectedCallback.accept(result.get());
+                                }
+                            }),
+                            () -> Platform.runLater(() -> {
+                                imageContainer.getChildren().remove(loadingIndicator);
+                                Label errorLabel = new Label("Failed to load details");
+                                errorLabel.setStyle("-fx-text-fill: #ff6b6b;");
+                                imageContainer.getChildren().add(errorLabel);
+                            }));
+                });
             } else {
                 AddSeriesModal modal = new AddSeriesModal(manga);
                 Optional<Manga> result = modal.showAndAwaitResult();
@@ -728,10 +1208,11 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
      */
     private void autoLoadMangaDexContent() {
         MangaSource selectedSource = sourceSelector.getValue();
-        if (selectedSource == null || !"mangadex".equals(selectedSource.getId())) {
+        if (selectedSource == null || !SourceRegistry.isMangaDex(selectedSource)) {
             return;
         }
 
+        aggregatedResults = null;
         searchField.setText("");
         searchParams.setQuery("");
         searchParams.setPage(1);
@@ -739,24 +1220,43 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
         currentPage = 1;
         pagination.setCurrentPageIndex(0);
 
-        updateMangaGridWithPlaceholders();
+        SearchParams params = searchParams.copy();
+        String key = SearchCache.key(selectedSource, params);
+        String countFormat = "Popular manga - %d results";
+        CompletableFuture<SearchResult> search = searchCache.get(selectedSource, params,
+                fresh -> Platform.runLater(() -> {
+                    if (key.equals(shownSearchKey)) {
+                        showSearchResult(selectedSource, params, fresh, countFormat);
+                    }
+                }));
+        if (search.isDone() && !search.isCompletedExceptionally()) {
+            trackPendingSearch(null);
+            showSearchResult(selectedSource, params, search.join(), countFormat);
+            return;
+        }
 
-        new Thread(() -> {
-            try {
-                SearchResult result = selectedSource.advancedSearch(searchParams);
+        updateMangaGridWithPlaceholders();
+        trackPendingSearch(search);
+        pendingSearchKey = key;
+        search.whenComplete((result, error) -> {
+            if (search.isCancelled()) {
+                return;
+            }
+            if (error == null) {
                 Platform.runLater(() -> {
-                    currentPage = result.getCurrentPage();
-                    totalPages = result.getTotalPages();
-                    pagination.setPageCount(totalPages);
-                    pagination.setCurrentPageIndex(currentPage - 1);
-                    resultsCountLabel.setText(String.format("Popular manga - %d results", result.getTotalResults()));
-
-                    updateMangaGridWithResults(result.getResults());
+                    if (pendingSearch != search) {
+                        return;
+                    }
+                    showSearchResult(selectedSource, params, result, countFormat);
                 });
-            } catch (Exception e) {
+            } else {
                 Platform.runLater(() -> {
+                    if (pendingSearch != search) {
+                        return;
+                    }
                     mangaGrid.getChildren().clear();
-                    Label errorLabel = new Label("Failed to load popular manga: " + e.getMessage());
+                    gridNodes.clear();
+                    Label errorLabel = new Label("Failed to load popular manga: " + error.getMessage());
                     errorLabel.setStyle("-fx-font-size: 16px; -fx-text-fill: #ff6b6b;");
                     VBox errorBox = new VBox(errorLabel);
                     errorBox.setAlignment(Pos.CENTER);
@@ -765,14 +1265,16 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
                     resultsCountLabel.setText("Error loading content");
                 });
             }
-        }).start();
+        });
     }
 
     /**
      * Show a clean initial state without any preloading
      */
     private void showInitialState() {
+        shownSearchKey = null;
         mangaGrid.getChildren().clear();
+        gridNodes.clear();
 
         Label welcomeLabel = new Label("Select a source and search for manga");
         welcomeLabel.setStyle("-fx-font-size: 18px; -fx-text-fill: #888; -fx-font-weight: bold;");
@@ -858,6 +1360,17 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
         }
     }
 
+    private void updateCheckboxesTheme(FlowPane flowPane, String textColor) {
+        flowPane.getChildren().forEach(child -> {
+            if (child instanceof CheckBox checkbox) {
+                checkbox.setStyle(String.format(
+                        "-fx-text-fill: %s; " +
+                                "-fx-padding: 5px;",
+                        textColor));
+            }
+        });
+    }
+
     private void updateAdvancedSearchPaneTheme() {
         if (advancedSearchPane == null)
             return;
@@ -881,14 +1394,10 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
                                 "-fx-text-fill: %s;",
                         textColor));
             } else if (node instanceof FlowPane flowPane) {
-                flowPane.getChildren().forEach(child -> {
-                    if (child instanceof CheckBox checkbox) {
-                        checkbox.setStyle(String.format(
-                                "-fx-text-fill: %s; " +
-                                        "-fx-padding: 5px;",
-                                textColor));
-                    }
-                });
+                updateCheckboxesTheme(flowPane, textColor);
+            } else if (node instanceof ScrollPane scrollPane && scrollPane.getContent() instanceof FlowPane flowPane) {
+                // The genre list scrolls
+                updateCheckboxesTheme(flowPane, textColor);
             } else if (node instanceof ComboBox<?> comboBox) {
                 comboBox.setStyle(String.format(
                         "-fx-background-color: %s; " +
@@ -919,6 +1428,14 @@ public class AddSeriesView extends VBox implements ThemeManager.ThemeChangeListe
     }
 
     public void dispose() {
+        searchDebounce.stop();
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+        }
+        cancelPrefetch();
+        cancelCoverLoads();
+        resetInfiniteScroll();
         executorService.shutdown();
+        prefetchExecutor.shutdownNow();
     }
 }
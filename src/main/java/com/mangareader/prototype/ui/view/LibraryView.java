@@ -48,6 +48,7 @@ public class LibraryView extends BorderPane implements ThemeManager.ThemeChangeL
     private TextField searchField;
     private Label statsLabel;
     private Button addSeriesButton;
+    private Button updateMetadataButton;
     private final VBox emptyStateContainer;
     private Consumer<Manga> onMangaSelectedCallback;
     private Runnable onAddSeriesCallback;
@@ -106,10 +107,13 @@ public class LibraryView extends BorderPane implements ThemeManager.ThemeChangeL
         addSeriesButton = new Button("+ Add New Series");
         addSeriesButton.setOnAction(e -> showAddSeriesView());
 
+        updateMetadataButton = new Button("⟳ Update Metadata");
+        updateMetadataButton.setOnAction(e -> updateLibraryMetadata());
+
         HBox leftSection = new HBox(15, new Label("📚 My Library"), statsLabel);
         leftSection.setAlignment(Pos.CENTER_LEFT);
 
-        HBox rightSection = new HBox(15, searchField, addSeriesButton);
+        HBox rightSection = new HBox(15, searchField, updateMetadataButton, addSeriesButton);
         rightSection.setAlignment(Pos.CENTER_RIGHT);
 
         HBox topBar = new HBox();
@@ -236,6 +240,7 @@ public class LibraryView extends BorderPane implements ThemeManager.ThemeChangeL
         imageView.setPreserveRatio(false);
         imageView.setSmooth(true); 
         imageView.setCache(true);
+        ImageCache.getInstance().pinWhileDisplayed(imageView);
 
         StackPane imageContainer = new StackPane(imageView);
 
@@ -258,7 +263,7 @@ public class LibraryView extends BorderPane implements ThemeManager.ThemeChangeL
         try {
             ImageCache imageCache = ImageCache.getInstance();
             if (manga.getCoverUrl() != null && !manga.getCoverUrl().isEmpty()) {
-                Image image = imageCache.getImage(manga.getCoverUrl());
+                Image image = imageCache.getImage(manga.getCoverUrl(), CARD_WIDTH, CARD_HEIGHT);
                 imageView.setImage(image);
             } else {
                 Image placeholderImage = imageCache.getPlaceholderImage("No+Cover");
@@ -436,6 +441,26 @@ public class LibraryView extends BorderPane implements ThemeManager.ThemeChangeL
         loadLibraryContent();
     }
 
+    /**
+     * Refresh titles, covers and descriptions for the whole library in a few
+     * batched requests, then reload the grid
+     */
+    private void updateLibraryMetadata() {
+        updateMetadataButton.setDisable(true);
+        statsLabel.setText("Updating metadata...");
+        new Thread(() -> {
+            try {
+                libraryService.refreshLibraryMetadata();
+            } catch (Exception e) {
+                System.err.println("Error updating library metadata: " + e.getMessage());
+            }
+            Platform.runLater(() -> {
+                updateMetadataButton.setDisable(false);
+                loadLibraryContent();
+            });
+        }).start();
+    }
+
     public void setOnMangaSelectedCallback(Consumer<Manga> callback) {
         this.onMangaSelectedCallback = callback;
     }
@@ -496,6 +521,18 @@ public class LibraryView extends BorderPane implements ThemeManager.ThemeChangeL
             statsLabel.setStyle("-fx-text-fill: " + textColor + ";");
         }
 
+        if (updateMetadataButton != null) {
+            updateMetadataButton.setStyle(String.format(
+                    "-fx-background-color: transparent; " +
+                            "-fx-text-fill: %s; " +
+                            "-fx-border-color: %s; " +
+                            "-fx-border-width: 1px; " +
+                            "-fx-background-radius: 6px; " +
+                            "-fx-border-radius: 6px; " +
+                            "-fx-padding: 10 20;",
+                    textColor, borderColor));
+        }
+
         if (addSeriesButton != null) {
             addSeriesButton.setStyle(String.format(
                     "-fx-background-color: #0096c9; " +
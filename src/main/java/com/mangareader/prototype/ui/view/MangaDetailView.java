@@ -119,6 +119,7 @@ public class MangaDetailView extends BorderPane implements ThemeManager.ThemeCha
         coverImageView.setPreserveRatio(true);
         coverImageView.setSmooth(true);
         coverImageView.setCache(true);
+        ImageCache.getInstance().pinWhileDisplayed(coverImageView);
 
         Rectangle clip = new Rectangle(250, 350);
         clip.setArcWidth(20);
@@ -920,7 +921,8 @@ public class MangaDetailView extends BorderPane implements ThemeManager.ThemeCha
 
         try {
             ImageCache imageCache = ImageCache.getInstance();
-            Image image = imageCache.getImage(manga.getCoverUrl());
+            Image image = imageCache.getImage(manga.getCoverUrl(), coverImageView.getFitWidth(),
+                    coverImageView.getFitHeight());
 
             image.errorProperty().addListener((obs, oldVal, newVal) -> {
                 if (newVal) {
@@ -6,6 +6,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import com.mangareader.prototype.model.Chapter;
 import com.mangareader.prototype.model.Manga;
@@ -14,6 +15,8 @@ import com.mangareader.prototype.service.MangaService;
 import com.mangareader.prototype.service.impl.DefaultMangaServiceImpl;
 import com.mangareader.prototype.service.impl.LibraryServiceImpl;
 import com.mangareader.prototype.ui.component.ThemeManager;
+import com.mangareader.prototype.util.HttpStatusException;
+import com.mangareader.prototype.util.ImageCache;
 
 import javafx.application.Platform;
 import javafx.geometry.Insets;
@@ -35,6 +38,7 @@ import javafx.scene.layout.VBox;
 public class MangaReaderView extends BorderPane {
     private static final Map<String, Double> MANGA_ZOOM_LEVELS = new HashMap<>();
     private static final Map<String, Boolean> MANGA_READING_MODES = new HashMap<>();
+    private static final int PAGE_LOAD_THREADS = 4;
 
     private final StackPane imageContainer;
     private final ScrollPane webtoonScrollPane;
@@ -56,10 +60,12 @@ public class MangaReaderView extends BorderPane {
     private final MangaService mangaService;
     private final LibraryService libraryService;
     private final ExecutorService executorService;
+    private final ExecutorService pageExecutor;
+    private final ImageCache imageCache;
 
-    private Chapter currentChapter;
+    private volatile Chapter currentChapter;
     private String currentMangaId;
-    private List<String> pageUrls;
+    private volatile List<String> pageUrls;
     private int currentPageIndex = 0;
     private double zoomLevel = 1.0;
     private boolean isWebtoonMode = false;
@@ -77,6 +83,12 @@ public class MangaReaderView extends BorderPane {
         this.mangaService = new DefaultMangaServiceImpl();
         this.libraryService = new LibraryServiceImpl();
         this.executorService = Executors.newSingleThreadExecutor();
+        this.pageExecutor = Executors.newFixedThreadPool(PAGE_LOAD_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "reader-pages");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.imageCache = ImageCache.getInstance();
         this.themeManager = ThemeManager.getInstance();
 
         imageContainer = new StackPane();
@@ -328,7 +340,6 @@ public class MangaReaderView extends BorderPane {
             try {
                 for (int i = 0; i < pageUrls.size(); i++) {
                     final int pageIndex = i;
-                    final String pageUrl = pageUrls.get(i);
 
                     Platform.runLater(() -> {
                         ImageView pageImageView = new ImageView();
@@ -356,33 +367,7 @@ public class MangaReaderView extends BorderPane {
 
                         pageImageView.setFitWidth(targetWidth);
 
-                        Image image = new Image(pageUrl, true);
-
-                        image.errorProperty().addListener((obs, wasError, isError) -> {
-                            if (isError) {
-                                System.err
-                                        .println("Error loading manga page image (likely corrupted JPEG): " + pageUrl);
-                                Platform.runLater(() -> {
-                                    Image errorImage = new Image(
-                                            "https://via.placeholder.com/600x800/333333/ffffff?text=Image+Error");
-                                    pageImageView.setImage(errorImage);
-                                });
-                            }
-                        });
-
-                        image.exceptionProperty().addListener((obs, oldEx, newEx) -> {
-                            if (newEx != null) {
-                                System.err.println(
-                                        "Exception loading manga page: " + newEx.getMessage() + " for: " + pageUrl);
-                                Platform.runLater(() -> {
-                                    Image errorImage = new Image(
-                                            "https://via.placeholder.com/600x800/333333/ffffff?text=Load+Failed");
-                                    pageImageView.setImage(errorImage);
-                                });
-                            }
-                        });
-
-                        pageImageView.setImage(image);
+                        loadPage(pageIndex, pageImageView::setImage, "600x800");
 
                         webtoonContainer.getChildren().add(pageImageView);
 
@@ -503,42 +488,89 @@ public class MangaReaderView extends BorderPane {
             return;
         }
 
-        String pageUrl = pageUrls.get(currentPageIndex);
-        Image image = new Image(pageUrl, true);
+        int pageIndex = currentPageIndex;
+        Chapter chapter = currentChapter;
+        currentImageView.setImage(null);
+        progressIndicator.setVisible(true);
 
-        image.errorProperty().addListener((obs, wasError, isError) -> {
-            if (isError) {
-                System.err.println("Error loading manga page (likely corrupted JPEG): " + pageUrl);
-                Platform.runLater(() -> {
-                    Image errorImage = new Image("https://via.placeholder.com/800x600/333333/ffffff?text=Image+Error");
-                    currentImageView.setImage(errorImage);
-                });
+        loadPage(pageIndex, image -> {
+            if (chapter != currentChapter || pageIndex != currentPageIndex) {
+                return;
             }
-        });
-
-        image.exceptionProperty().addListener((obs, oldEx, newEx) -> {
-            if (newEx != null) {
-                System.err.println("Exception loading page: " + newEx.getMessage() + " for: " + pageUrl);
-                Platform.runLater(() -> {
-                    Image errorImage = new Image("https://via.placeholder.com/800x600/333333/ffffff?text=Load+Failed");
-                    currentImageView.setImage(errorImage);
+            progressIndicator.setVisible(false);
+            currentImageView.setImage(image);
+            if (image.getProgress() < 1.0) {
+                image.progressProperty().addListener((obs, oldProgress, newProgress) -> {
+                    if (newProgress.doubleValue() >= 1.0) {
+                        Platform.runLater(this::updateImageSize);
+                    }
                 });
             }
-        });
-
-        currentImageView.setImage(image);
+            updateImageSize();
+        }, "800x600");
 
         pageInfoLabel.setText(String.format("Page %d / %d", currentPageIndex + 1, pageUrls.size()));
 
-        image.progressProperty().addListener((obs, oldProgress, newProgress) -> {
-            if (newProgress.doubleValue() >= 1.0) {
-                Platform.runLater(this::updateImageSize);
+        Platform.runLater(() -> requestFocus());
+    }
+
+    /**
+     * Load a page off the FX thread and hand it to onLoaded (on the FX
+     * thread). MangaDex page URLs expire after a while; when a page comes back
+     * 403/410 the chapter's page list is refreshed and the page retried once
+     * before falling back to the error placeholder.
+     */
+    private void loadPage(int pageIndex, Consumer<Image> onLoaded, String placeholderSize) {
+        List<String> urls = pageUrls;
+        Chapter chapter = currentChapter;
+        pageExecutor.submit(() -> {
+            Image image;
+            try {
+                image = fetchPage(chapter, urls, pageIndex);
+            } catch (Exception e) {
+                System.err.println("Exception loading page: " + e.getMessage() + " for: " + urls.get(pageIndex));
+                image = new Image(String.format("https://via.placeholder.com/%s/333333/ffffff?text=Load+Failed",
+                        placeholderSize), true);
             }
+            Image loaded = image;
+            Platform.runLater(() -> onLoaded.accept(loaded));
         });
+    }
 
-        Platform.runLater(this::updateImageSize);
+    private Image fetchPage(Chapter chapter, List<String> urls, int pageIndex) throws Exception {
+        try {
+            return imageCache.fetchImage(urls.get(pageIndex));
+        } catch (HttpStatusException e) {
+            if (e.getStatusCode() != 403 && e.getStatusCode() != 410) {
+                throw e;
+            }
+            List<String> fresh = refreshPageUrls(chapter, urls);
+            if (fresh == urls || pageIndex >= fresh.size()) {
+                throw e;
+            }
+            return imageCache.fetchImage(fresh.get(pageIndex));
+        }
+    }
 
-        Platform.runLater(() -> requestFocus());
+    /**
+     * Pages of a chapter usually expire together; only the first one to fail
+     * asks for a new page list, the others pick up the result.
+     */
+    private synchronized List<String> refreshPageUrls(Chapter chapter, List<String> stale) {
+        if (chapter != currentChapter) {
+            return stale;
+        }
+        if (pageUrls != stale) {
+            return pageUrls;
+        }
+        System.out.println("Page URLs expired, refreshing chapter " + chapter.getId());
+        List<String> fresh = mangaService.refreshChapterPages(chapter.getMangaId(), chapter.getId());
+        if (fresh == null || fresh.size() != stale.size()) {
+            System.err.println("Refreshed page list does not match the chapter, giving up");
+            return stale;
+        }
+        pageUrls = fresh;
+        return fresh;
     }
 
     private void updateImageSize() {
@@ -881,5 +913,6 @@ public class MangaReaderView extends BorderPane {
         if (executorService != null && !executorService.isShutdown()) {
             executorService.shutdown();
         }
+        pageExecutor.shutdownNow();
     }
 }
\ No newline at end of file
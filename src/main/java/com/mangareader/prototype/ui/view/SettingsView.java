@@ -1,13 +1,19 @@
 package com.mangareader.prototype.ui.view;
 
+import com.mangareader.prototype.source.impl.MangaDexSource;
 import com.mangareader.prototype.ui.component.ThemeManager;
+import com.mangareader.prototype.util.HttpResponseCache;
 import com.mangareader.prototype.util.ImageCache;
+import com.mangareader.prototype.util.ImageQualityManager;
+import com.mangareader.prototype.util.ImageQualityManager.ImageQuality;
+import com.mangareader.prototype.util.SearchCache;
 
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.Separator;
 import javafx.scene.layout.HBox;
@@ -16,10 +22,13 @@ import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.util.StringConverter;
 
 public class SettingsView extends StackPane implements ThemeManager.ThemeChangeListener {
     private final ThemeManager themeManager;
     private Button currentThemeButton;
+    private Label memoryCacheInfoLabel;
+    private Label diskCacheInfoLabel;
 
     public SettingsView() {
         themeManager = ThemeManager.getInstance();
@@ -40,17 +49,24 @@ public class SettingsView extends StackPane implements ThemeManager.ThemeChangeL
         Separator separator1 = new Separator();
         separator1.setPrefWidth(400);
 
-        VBox cacheSection = createCacheSection();
+        VBox readerSection = createReaderSection();
 
         Separator separator2 = new Separator();
         separator2.setPrefWidth(400);
 
+        VBox cacheSection = createCacheSection();
+
+        Separator separator3 = new Separator();
+        separator3.setPrefWidth(400);
+
         mainContainer.getChildren().addAll(
                 titleLabel,
                 themeSection,
                 separator1,
+                readerSection,
+                separator2,
                 cacheSection,
-                separator2);
+                separator3);
 
         getChildren().add(mainContainer);
     }
@@ -147,6 +163,57 @@ public class SettingsView extends StackPane implements ThemeManager.ThemeChangeL
         }
     }
 
+    private VBox createReaderSection() {
+        VBox readerSection = new VBox(15);
+
+        Label readerSectionTitle = new Label("Reader");
+        readerSectionTitle.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
+
+        HBox qualityRow = new HBox(15);
+        qualityRow.setAlignment(Pos.CENTER_LEFT);
+
+        Label qualityLabel = new Label("Image Quality:");
+        qualityLabel.setStyle("-fx-font-size: 14px;");
+        qualityLabel.setPrefWidth(100);
+
+        ImageQualityManager imageQualityManager = ImageQualityManager.getInstance();
+        ComboBox<ImageQuality> qualitySelector = new ComboBox<>();
+        qualitySelector.getItems().addAll(ImageQuality.values());
+        qualitySelector.setValue(imageQualityManager.getQuality());
+        qualitySelector.setOnAction(e -> imageQualityManager.setQuality(qualitySelector.getValue()));
+
+        Label bandwidthLabel = new Label(formatBandwidthInfo(imageQualityManager));
+        bandwidthLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #666;");
+
+        qualityRow.getChildren().addAll(
+                qualityLabel,
+                qualitySelector,
+                bandwidthLabel);
+
+        Label qualityDescription = new Label(
+                "Data saver loads compressed pages. Auto uses full quality pages and switches to data saver "
+                        + "when pages download slowly. Applies from the next chapter you open.");
+        qualityDescription.setStyle("-fx-font-size: 12px; -fx-text-fill: #666;");
+        qualityDescription.setWrapText(true);
+        qualityDescription.setPrefWidth(500);
+
+        readerSection.getChildren().addAll(
+                readerSectionTitle,
+                qualityRow,
+                qualityDescription);
+
+        return readerSection;
+    }
+
+    private String formatBandwidthInfo(ImageQualityManager imageQualityManager) {
+        if (imageQualityManager.getThroughputBytesPerSecond() <= 0) {
+            return "No pages measured yet";
+        }
+        return String.format("Measured %.0f KB/s, %.0f ms latency (using %s)",
+                imageQualityManager.getThroughputBytesPerSecond() / 1024, imageQualityManager.getLatencyMillis(),
+                imageQualityManager.getEffectiveQuality().getDisplayName().toLowerCase());
+    }
+
     private VBox createCacheSection() {
         VBox cacheSection = new VBox(15);
 
@@ -190,7 +257,9 @@ public class SettingsView extends StackPane implements ThemeManager.ThemeChangeL
                 clearCacheButton);
 
         Label cacheDescription = new Label(
-                "Clear cached images to free up disk space. Images will be re-downloaded when needed.");
+                "Clear cached images to free up disk space. Images will be re-downloaded when needed. "
+                        + "Memory is how much decoded images may keep in RAM; covers on screen are always kept. "
+                        + "Disk is how much the image cache may keep on disk; the least recently used images go first.");
         cacheDescription.setStyle("-fx-font-size: 12px; -fx-text-fill: #666;");
         cacheDescription.setWrapText(true);
         cacheDescription.setPrefWidth(500);
@@ -198,11 +267,138 @@ public class SettingsView extends StackPane implements ThemeManager.ThemeChangeL
         cacheSection.getChildren().addAll(
                 cacheSectionTitle,
                 cacheInfoRow,
+                createMemoryCacheRow(),
+                createDiskCacheRow(),
+                createApiCacheRow(),
                 cacheDescription);
 
         return cacheSection;
     }
 
+    private HBox createMemoryCacheRow() {
+        HBox memoryCacheRow = new HBox(15);
+        memoryCacheRow.setAlignment(Pos.CENTER_LEFT);
+
+        Label memoryCacheLabel = new Label("Memory:");
+        memoryCacheLabel.setStyle("-fx-font-size: 14px;");
+        memoryCacheLabel.setPrefWidth(100);
+
+        ImageCache imageCache = ImageCache.getInstance();
+        ComboBox<Long> budgetSelector = createSizeSelector(imageCache.getMemoryBudgetMB(),
+                64L, 128L, 256L, 512L, 1024L);
+
+        memoryCacheInfoLabel = new Label(imageCache.getMemoryStats().toString());
+        memoryCacheInfoLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #666;");
+
+        budgetSelector.setOnAction(e -> {
+            imageCache.setMemoryBudgetMB(budgetSelector.getValue());
+            memoryCacheInfoLabel.setText(imageCache.getMemoryStats().toString());
+        });
+
+        memoryCacheRow.getChildren().addAll(
+                memoryCacheLabel,
+                budgetSelector,
+                memoryCacheInfoLabel);
+        return memoryCacheRow;
+    }
+
+    private HBox createDiskCacheRow() {
+        HBox diskCacheRow = new HBox(15);
+        diskCacheRow.setAlignment(Pos.CENTER_LEFT);
+
+        Label diskCacheLabel = new Label("Disk:");
+        diskCacheLabel.setStyle("-fx-font-size: 14px;");
+        diskCacheLabel.setPrefWidth(100);
+
+        ImageCache imageCache = ImageCache.getInstance();
+        ComboBox<Long> quotaSelector = createSizeSelector(imageCache.getDiskQuotaMB(),
+                256L, 512L, 1024L, 2048L, 4096L);
+
+        diskCacheInfoLabel = new Label(imageCache.getDiskStats().toString());
+        diskCacheInfoLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #666;");
+
+        quotaSelector.setOnAction(e -> {
+            imageCache.setDiskQuotaMB(quotaSelector.getValue());
+            diskCacheInfoLabel.setText(imageCache.getDiskStats().toString());
+        });
+
+        diskCacheRow.getChildren().addAll(
+                diskCacheLabel,
+                quotaSelector,
+                diskCacheInfoLabel);
+        return diskCacheRow;
+    }
+
+    /**
+     * Selector of sizes in MB; the current value is added when it is not one
+     * of the options
+     */
+    private ComboBox<Long> createSizeSelector(long current, Long... options) {
+        ComboBox<Long> selector = new ComboBox<>();
+        selector.getItems().addAll(options);
+        if (!selector.getItems().contains(current)) {
+            selector.getItems().add(current);
+            selector.getItems().sort(null);
+        }
+        selector.setValue(current);
+        selector.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Long megabytes) {
+                return megabytes == null ? "" : megabytes + " MB";
+            }
+
+            @Override
+            public Long fromString(String text) {
+                return Long.parseLong(text.replace("MB", "").trim());
+            }
+        });
+        return selector;
+    }
+
+    private HBox createApiCacheRow() {
+        HBox apiCacheRow = new HBox(15);
+        apiCacheRow.setAlignment(Pos.CENTER_LEFT);
+
+        Label apiCacheLabel = new Label("API Cache:");
+        apiCacheLabel.setStyle("-fx-font-size: 14px;");
+        apiCacheLabel.setPrefWidth(100);
+
+        Label apiCacheInfoLabel = new Label(formatApiCacheInfo(HttpResponseCache.getInstance().getStats()));
+        apiCacheInfoLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #666;");
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+
+        Button clearApiCacheButton = new Button("Clear");
+        clearApiCacheButton.setStyle(
+                "-fx-font-size: 14px; " +
+                        "-fx-padding: 8 16; " +
+                        "-fx-background-color: #dc3545; " +
+                        "-fx-text-fill: white; " +
+                        "-fx-background-radius: 6; " +
+                        "-fx-border-radius: 6;");
+        clearApiCacheButton.setOnAction(e -> {
+            HttpResponseCache.getInstance().clear();
+            SearchCache.getInstance().clear();
+            apiCacheInfoLabel.setText(formatApiCacheInfo(HttpResponseCache.getInstance().getStats()));
+        });
+
+        apiCacheRow.getChildren().addAll(
+                apiCacheLabel,
+                apiCacheInfoLabel,
+                spacer,
+                clearApiCacheButton);
+        return apiCacheRow;
+    }
+
+    private String formatApiCacheInfo(HttpResponseCache.Stats stats) {
+        return String.format("%.2f MB on disk, %d hits, %d revalidated, %d misses, %d duplicates coalesced%n"
+                + "Search results: %s",
+                stats.getSizeBytes() / (1024.0 * 1024.0), stats.getHits(), stats.getRevalidations(),
+                stats.getMisses(), MangaDexSource.getCoalescingStats().getCoalesced(),
+                SearchCache.getInstance().getStats());
+    }
+
     private void clearImageCache(Label cacheInfoLabel) {
         try {
             ImageCache imageCache = ImageCache.getInstance();
@@ -211,6 +407,8 @@ public class SettingsView extends StackPane implements ThemeManager.ThemeChangeL
 
             Platform.runLater(() -> {
                 cacheInfoLabel.setText("0 images in memory, 0.00 MB on disk");
+                memoryCacheInfoLabel.setText(imageCache.getMemoryStats().toString());
+                diskCacheInfoLabel.setText(imageCache.getDiskStats().toString());
             });
 
             showCacheAlert("Cache Cleared",
@@ -0,0 +1,272 @@
+package com.mangareader.prototype.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * ArchiveReader serves page images straight out of CBZ/ZIP archives.
+ *
+ * Pages are addressed with jar: URIs ("jar:file:/x/vol1.cbz!/001.png"), the
+ * same form the JDK uses for entries of a zip file, so they can be passed
+ * around like any other image URL and handed to ImageCache.
+ *
+ * Opening a ZipFile reads the archive's central directory once; the ZipFile
+ * is then kept open and entries are read in place, without extracting
+ * anything to disk. At most MAX_OPEN_ARCHIVES stay open (least recently used
+ * are closed), and an archive that changed on disk is reopened. Entries of
+ * one archive are read concurrently (ZipFile allows that); an archive evicted
+ * while pages are being read from it is only closed once they are done.
+ */
+public class ArchiveReader {
+    private static final String URI_PREFIX = "jar:file:";
+    private static final String ENTRY_SEPARATOR = "!/";
+    private static final int MAX_OPEN_ARCHIVES = 8;
+    // Formats JavaFX can decode
+    private static final List<String> IMAGE_EXTENSIONS = List.of(".jpg", ".jpeg", ".png", ".gif", ".bmp");
+
+    private static final ArchiveReader instance = new ArchiveReader();
+
+    private final Map<Path, OpenArchive> openArchives = new LinkedHashMap<>(16, 0.75f, true);
+
+    private ArchiveReader() {
+    }
+
+    public static ArchiveReader getInstance() {
+        return instance;
+    }
+
+    public static boolean isArchiveUri(String url) {
+        return url != null && url.startsWith(URI_PREFIX) && url.contains(ENTRY_SEPARATOR);
+    }
+
+    public static boolean isArchive(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".cbz") || name.endsWith(".zip");
+    }
+
+    public static boolean isImage(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return IMAGE_EXTENSIONS.stream().anyMatch(lower::endsWith);
+    }
+
+    /**
+     * The jar: URI of one entry
+     */
+    public static String entryUri(Path archive, String entryName) {
+        try {
+            String encoded = new URI(null, null, "/" + entryName, null).getRawPath();
+            return "jar:" + archive.toUri() + ENTRY_SEPARATOR + encoded.substring(1);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid entry name: " + entryName, e);
+        }
+    }
+
+    /**
+     * The archive file a jar: URI points into
+     */
+    public static Path archivePath(String uri) throws IOException {
+        if (!isArchiveUri(uri)) {
+            throw new IOException("Not an archive entry: " + uri);
+        }
+        try {
+            return Paths.get(URI.create(uri.substring("jar:".length(), uri.indexOf(ENTRY_SEPARATOR))));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid archive URI: " + uri, e);
+        }
+    }
+
+    /**
+     * Image entries of an archive in natural order ("2.png" before "10.png"),
+     * skipping directories and hidden files such as __MACOSX/
+     */
+    public List<String> listImages(Path archive) throws IOException {
+        // Read once when the archive was opened, and never changed
+        return open(archive).images;
+    }
+
+    /**
+     * The bytes of the entry a jar: URI points to
+     */
+    public byte[] readEntry(String uri) throws IOException {
+        if (!isArchiveUri(uri)) {
+            throw new IOException("Not an archive entry: " + uri);
+        }
+        int separator = uri.indexOf(ENTRY_SEPARATOR);
+        Path archive = archivePath(uri);
+        String entryName;
+        try {
+            entryName = URI.create("/" + uri.substring(separator + ENTRY_SEPARATOR.length())).getPath().substring(1);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid archive URI: " + uri, e);
+        }
+
+        OpenArchive open = open(archive);
+        while (!open.acquire()) {
+            open = open(archive); // evicted by another thread in the meantime
+        }
+        try {
+            ZipEntry entry = open.zip.getEntry(entryName);
+            if (entry == null) {
+                throw new NoSuchFileException(uri);
+            }
+            try (InputStream in = open.zip.getInputStream(entry)) {
+                return in.readAllBytes();
+            }
+        } finally {
+            open.release();
+        }
+    }
+
+    /**
+     * Close every open archive
+     */
+    public synchronized void closeAll() {
+        for (OpenArchive open : openArchives.values()) {
+            open.close();
+        }
+        openArchives.clear();
+    }
+
+    private synchronized OpenArchive open(Path archive) throws IOException {
+        Path key = archive.toAbsolutePath().normalize();
+        long size = Files.size(key);
+        long modified = Files.getLastModifiedTime(key).toMillis();
+
+        OpenArchive open = openArchives.get(key);
+        if (open != null && open.size == size && open.modified == modified) {
+            return open;
+        }
+        if (open != null) {
+            openArchives.remove(key);
+            open.close();
+        }
+
+        open = new OpenArchive(new ZipFile(key.toFile()), size, modified);
+        openArchives.put(key, open);
+        Iterator<OpenArchive> eldest = openArchives.values().iterator();
+        while (openArchives.size() > MAX_OPEN_ARCHIVES) {
+            eldest.next().close();
+            eldest.remove();
+        }
+        return open;
+    }
+
+    /**
+     * Compare names so that embedded numbers sort by value
+     */
+    public static int compareNatural(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            char ca = a.charAt(i);
+            char cb = b.charAt(j);
+            if (Character.isDigit(ca) && Character.isDigit(cb)) {
+                int startA = i;
+                int startB = j;
+                while (i < a.length() && Character.isDigit(a.charAt(i))) {
+                    i++;
+                }
+                while (j < b.length() && Character.isDigit(b.charAt(j))) {
+                    j++;
+                }
+                String numberA = a.substring(startA, i).replaceFirst("^0+(?=.)", "");
+                String numberB = b.substring(startB, j).replaceFirst("^0+(?=.)", "");
+                int result = numberA.length() != numberB.length()
+                        ? Integer.compare(numberA.length(), numberB.length())
+                        : numberA.compareTo(numberB);
+                if (result != 0) {
+                    return result;
+                }
+            } else {
+                int result = Character.compare(Character.toLowerCase(ca), Character.toLowerCase(cb));
+                if (result != 0) {
+                    return result;
+                }
+                i++;
+                j++;
+            }
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    private static final class OpenArchive {
+        final ZipFile zip;
+        final long size;
+        final long modified;
+        final List<String> images;
+        // No new readers once closed; the ZipFile itself is closed when the last one is done
+        boolean closed;
+        int readers;
+
+        OpenArchive(ZipFile zip, long size, long modified) {
+            this.zip = zip;
+            this.size = size;
+            this.modified = modified;
+
+            List<String> names = new ArrayList<>();
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                String fileName = name.substring(name.lastIndexOf('/') + 1);
+                if (!entry.isDirectory() && isImage(name) && !name.startsWith("__MACOSX/")
+                        && !fileName.startsWith(".")) {
+                    names.add(name);
+                }
+            }
+            names.sort(ArchiveReader::compareNatural);
+            this.images = List.copyOf(names);
+        }
+
+        /**
+         * Register a reader; false if the archive was closed
+         */
+        synchronized boolean acquire() {
+            if (closed) {
+                return false;
+            }
+            readers++;
+            return true;
+        }
+
+        synchronized void release() {
+            readers--;
+            if (closed && readers == 0) {
+                closeZip();
+            }
+        }
+
+        synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (readers == 0) {
+                closeZip();
+            }
+        }
+
+        private void closeZip() {
+            try {
+                zip.close();
+            } catch (IOException e) {
+                System.err.println("Error closing archive " + zip.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.mangareader.prototype.util;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CircuitBreaker tracks failures per host so that during an outage requests
+ * fail immediately instead of each one waiting for timeouts and retries.
+ *
+ * - CLOSED: requests go through; FAILURE_THRESHOLD consecutive failures open it
+ * - OPEN: requests are refused until OPEN_DURATION has passed
+ * - HALF_OPEN: one trial request is let through; success closes the circuit,
+ * failure opens it again. A request that ends without an outcome (cancelled,
+ * or failed before reaching the server) must call releaseTrial, so the next
+ * request becomes the trial.
+ *
+ * Only outages count as failures (connection errors, timeouts, 5xx). Client
+ * errors such as 404 or 429 mean the server is up.
+ */
+public class CircuitBreaker {
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final long OPEN_DURATION_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private static final CircuitBreaker instance = new CircuitBreaker();
+
+    private final Map<String, HostCircuit> circuits = new ConcurrentHashMap<>();
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private CircuitBreaker() {
+    }
+
+    public static CircuitBreaker getInstance() {
+        return instance;
+    }
+
+    /**
+     * @return false if the host's circuit is open and the request should fail
+     *         fast
+     */
+    public boolean allowRequest(String url) {
+        return circuitFor(url).allowRequest();
+    }
+
+    public void recordSuccess(String url) {
+        circuitFor(url).recordSuccess();
+    }
+
+    /**
+     * An admitted request ended with neither success nor failure (it was
+     * cancelled, for instance). In HALF_OPEN the next request may then be the
+     * trial; otherwise this does nothing.
+     */
+    public void releaseTrial(String url) {
+        circuitFor(url).releaseTrial();
+    }
+
+    public void recordFailure(String url) {
+        HostCircuit circuit = circuitFor(url);
+        if (circuit.recordFailure()) {
+            System.err.println("Circuit opened for " + hostOf(url) + " after repeated failures");
+        }
+    }
+
+    public State getState(String host) {
+        HostCircuit circuit = circuits.get(host.toLowerCase());
+        return circuit != null ? circuit.currentState() : State.CLOSED;
+    }
+
+    /**
+     * Current state of every host seen so far, sorted by host
+     */
+    public Map<String, State> getAllStates() {
+        Map<String, State> states = new TreeMap<>();
+        circuits.forEach((host, circuit) -> states.put(host, circuit.currentState()));
+        return states;
+    }
+
+    private HostCircuit circuitFor(String url) {
+        return circuits.computeIfAbsent(hostOf(url), host -> new HostCircuit());
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            if (host != null) {
+                return host.toLowerCase();
+            }
+        } catch (Exception e) {
+            // Fall through to the shared "unknown" circuit
+        }
+        return "unknown";
+    }
+
+    private static final class HostCircuit {
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openedAt;
+        private boolean trialInFlight;
+
+        private synchronized boolean allowRequest() {
+            switch (state) {
+                case OPEN:
+                    if (System.nanoTime() - openedAt < OPEN_DURATION_NANOS) {
+                        return false;
+                    }
+                    state = State.HALF_OPEN;
+                    trialInFlight = true;
+                    return true;
+                case HALF_OPEN:
+                    if (trialInFlight) {
+                        return false;
+                    }
+                    trialInFlight = true;
+                    return true;
+                default:
+                    return true;
+            }
+        }
+
+        private synchronized void recordSuccess() {
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            trialInFlight = false;
+        }
+
+        private synchronized void releaseTrial() {
+            if (state == State.HALF_OPEN) {
+                trialInFlight = false;
+            }
+        }
+
+        /**
+         * @return true if this failure opened the circuit
+         */
+        private synchronized boolean recordFailure() {
+            consecutiveFailures++;
+            trialInFlight = false;
+            if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= FAILURE_THRESHOLD)) {
+                boolean opened = state == State.CLOSED;
+                state = State.OPEN;
+                openedAt = System.nanoTime();
+                return opened;
+            }
+            return false;
+        }
+
+        private synchronized State currentState() {
+            return state;
+        }
+    }
+}
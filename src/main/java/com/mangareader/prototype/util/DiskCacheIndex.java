@@ -0,0 +1,501 @@
+package com.mangareader.prototype.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * DiskCacheIndex tracks the files of a disk cache directory, so its size is
+ * known without walking it and it can be held to a quota.
+ *
+ * - One entry per file: path relative to the root, size, last access, kind
+ * - The total is updated as files are written and deleted, so size queries
+ *   are O(1)
+ * - Over the quota, the least recently accessed files are deleted first
+ * - Files live in shard subdirectories named after the first two characters
+ *   of their name (256 of them for hex names), so no directory grows huge
+ *
+ * The index is saved to index.json in the root a few seconds after a change,
+ * and by flush(). When it is missing (first run, or the app died before it
+ * was saved) the directory is walked once to rebuild it; files left from the
+ * old flat layout are moved into their shards on the way. Changes not saved
+ * yet are marked by an index.dirty file; if the app dies before the save,
+ * the next start finds the marker and walks the directory to add the files
+ * written since (and drop the ones deleted since) to the loaded index.
+ */
+public class DiskCacheIndex {
+    public enum Kind {
+        ORIGINAL,
+        THUMBNAIL
+    }
+
+    private static final String INDEX_FILE = "index.json";
+    private static final String DIRTY_MARKER = "index.dirty";
+    private static final long SAVE_DELAY_SECONDS = 5;
+    private static final int SHARD_LENGTH = 2;
+
+    private final Path root;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Least recently accessed first
+    private final Map<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final ScheduledExecutorService saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "disk-cache-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long quotaBytes;
+    private long totalBytes;
+    private long evictions;
+    private boolean saveScheduled;
+
+    public DiskCacheIndex(Path root, long quotaBytes) {
+        this.root = root;
+        this.quotaBytes = quotaBytes;
+        long start = System.nanoTime();
+        if (!load()) {
+            rebuild();
+            save();
+        } else if (Files.exists(root.resolve(DIRTY_MARKER))) {
+            reconcile();
+            save();
+        }
+        System.out.printf("Disk cache index: %d files, %.1f MB (%d ms)%n", entries.size(),
+                totalBytes / (1024.0 * 1024.0), (System.nanoTime() - start) / 1_000_000);
+        evict(null);
+    }
+
+    /**
+     * Where a file named fileName belongs inside directory (the root or a
+     * subdirectory of it); the shard directory is created if needed
+     */
+    public Path resolve(Path directory, String fileName) {
+        Path shard = directory.resolve(fileName.substring(0, Math.min(SHARD_LENGTH, fileName.length())));
+        try {
+            Files.createDirectories(shard);
+        } catch (IOException e) {
+            System.err.println("Failed to create cache shard " + shard + ": " + e.getMessage());
+        }
+        return shard.resolve(fileName);
+    }
+
+    /**
+     * A file was written (or replaced); may evict older files
+     */
+    public void recordWrite(Path file, Kind kind) {
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            return;
+        }
+        String key = keyOf(file);
+        List<Path> victims;
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(size, System.currentTimeMillis(), kind));
+            totalBytes += size - (previous != null ? previous.size : 0);
+            victims = collectVictims(key);
+            scheduleSave();
+        }
+        deleteAll(victims);
+    }
+
+    /**
+     * A file was read; it becomes the most recently used
+     */
+    public void recordAccess(Path file) {
+        String key = keyOf(file);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                entry.lastAccess = System.currentTimeMillis();
+                scheduleSave();
+                return;
+            }
+        }
+        // Written after the index was last saved, before a crash
+        recordWrite(file, kindOf(key));
+    }
+
+    /**
+     * Delete a file and forget it
+     */
+    public void delete(Path file) throws IOException {
+        synchronized (this) {
+            forget(keyOf(file));
+        }
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Delete every file in the cache
+     */
+    public void clear() {
+        synchronized (this) {
+            entries.clear();
+            totalBytes = 0;
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile)
+                    .filter(file -> !isIndexFile(file.getFileName().toString()))
+                    .forEach(file -> {
+                        try {
+                            Files.delete(file);
+                        } catch (IOException e) {
+                            System.err.println("Error deleting cached file: " + e.getMessage());
+                        }
+                    });
+        } catch (IOException e) {
+            System.err.println("Error clearing disk cache: " + e.getMessage());
+        }
+        flush();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized long getQuotaBytes() {
+        return quotaBytes;
+    }
+
+    /**
+     * Change the quota; evicts right away when it shrinks
+     */
+    public void setQuotaBytes(long quotaBytes) {
+        List<Path> victims;
+        synchronized (this) {
+            this.quotaBytes = quotaBytes;
+            victims = collectVictims(null);
+            scheduleSave();
+        }
+        deleteAll(victims);
+    }
+
+    public synchronized Stats getStats() {
+        int thumbnails = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.kind == Kind.THUMBNAIL) {
+                thumbnails++;
+            }
+        }
+        return new Stats(entries.size(), thumbnails, totalBytes, quotaBytes, evictions);
+    }
+
+    /**
+     * Save the index now
+     */
+    public void flush() {
+        synchronized (this) {
+            saveScheduled = false;
+        }
+        save();
+    }
+
+    private void evict(String keep) {
+        List<Path> victims;
+        synchronized (this) {
+            victims = collectVictims(keep);
+        }
+        deleteAll(victims);
+    }
+
+    /**
+     * Remove least recently used entries until the total fits the quota;
+     * the caller deletes their files outside the lock
+     */
+    private List<Path> collectVictims(String keep) {
+        List<Path> victims = new ArrayList<>();
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > quotaBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> next = eldest.next();
+            if (next.getKey().equals(keep)) {
+                continue;
+            }
+            eldest.remove();
+            totalBytes -= next.getValue().size;
+            evictions++;
+            victims.add(root.resolve(next.getKey()));
+        }
+        return victims;
+    }
+
+    private static void deleteAll(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("Error evicting cached file: " + e.getMessage());
+            }
+        }
+    }
+
+    private void forget(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            totalBytes -= entry.size;
+            scheduleSave();
+        }
+    }
+
+    private void scheduleSave() {
+        if (saveScheduled) {
+            return;
+        }
+        saveScheduled = true;
+        try {
+            Files.createDirectories(root);
+            Files.write(root.resolve(DIRTY_MARKER), new byte[0]);
+        } catch (IOException e) {
+            System.err.println("Failed to mark disk cache index dirty: " + e.getMessage());
+        }
+        saver.schedule(() -> {
+            synchronized (this) {
+                if (!saveScheduled) {
+                    return;
+                }
+                saveScheduled = false;
+            }
+            save();
+        }, SAVE_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private String keyOf(Path file) {
+        return root.relativize(file).toString().replace('\\', '/');
+    }
+
+    private static boolean isIndexFile(String name) {
+        return name.equals(INDEX_FILE) || name.equals(DIRTY_MARKER);
+    }
+
+    private static Kind kindOf(String key) {
+        return key.startsWith("thumbnails/") ? Kind.THUMBNAIL : Kind.ORIGINAL;
+    }
+
+    private boolean load() {
+        Path indexFile = root.resolve(INDEX_FILE);
+        if (!Files.isRegularFile(indexFile)) {
+            return false;
+        }
+        try {
+            List<Map.Entry<String, Entry>> loaded = new ArrayList<>();
+            for (JsonNode node : objectMapper.readTree(indexFile.toFile()).path("files")) {
+                loaded.add(Map.entry(node.path("path").asText(), new Entry(node.path("size").asLong(),
+                        node.path("lastAccess").asLong(), Kind.valueOf(node.path("kind").asText()))));
+            }
+            loaded.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+            synchronized (this) {
+                for (Map.Entry<String, Entry> entry : loaded) {
+                    entries.put(entry.getKey(), entry.getValue());
+                    totalBytes += entry.getValue().size;
+                }
+            }
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Disk cache index unreadable, rebuilding: " + e.getMessage());
+            synchronized (this) {
+                entries.clear();
+                totalBytes = 0;
+            }
+            return false;
+        }
+    }
+
+    private void rebuild() {
+        List<Map.Entry<String, Entry>> found = scan();
+        if (found == null) {
+            return;
+        }
+        synchronized (this) {
+            for (Map.Entry<String, Entry> entry : found) {
+                entries.put(entry.getKey(), entry.getValue());
+                totalBytes += entry.getValue().size;
+            }
+        }
+    }
+
+    /**
+     * After an unclean shutdown: add the files written since the index was
+     * last saved (as the most recently used) and forget the ones deleted
+     * since, keeping the saved access order for the rest
+     */
+    private void reconcile() {
+        List<Map.Entry<String, Entry>> found = scan();
+        if (found == null) {
+            return;
+        }
+        int added = 0;
+        int removed = 0;
+        synchronized (this) {
+            Map<String, Entry> onDisk = new LinkedHashMap<>();
+            found.forEach(entry -> onDisk.put(entry.getKey(), entry.getValue()));
+            Iterator<Map.Entry<String, Entry>> indexed = entries.entrySet().iterator();
+            while (indexed.hasNext()) {
+                Map.Entry<String, Entry> entry = indexed.next();
+                if (onDisk.remove(entry.getKey()) == null) {
+                    indexed.remove();
+                    totalBytes -= entry.getValue().size;
+                    removed++;
+                }
+            }
+            for (Map.Entry<String, Entry> entry : onDisk.entrySet()) {
+                entries.put(entry.getKey(), entry.getValue());
+                totalBytes += entry.getValue().size;
+                added++;
+            }
+        }
+        System.out.println("Disk cache index was not saved before shutdown: " + added + " files added, "
+                + removed + " forgotten");
+    }
+
+    /**
+     * Walk the directory: every cache file, least recently modified first,
+     * or null if the directory could not be read
+     */
+    private List<Map.Entry<String, Entry>> scan() {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+        } catch (IOException e) {
+            System.err.println("Error scanning disk cache: " + e.getMessage());
+            return null;
+        }
+
+        List<Map.Entry<String, Entry>> found = new ArrayList<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            try {
+                if (isIndexFile(name)) {
+                    continue;
+                }
+                if (name.endsWith(".tmp")) {
+                    Files.deleteIfExists(file); // left by an interrupted write
+                    continue;
+                }
+                Path directory = file.getParent();
+                boolean sharded = directory.getFileName().toString().length() == SHARD_LENGTH
+                        && name.startsWith(directory.getFileName().toString()) && !directory.equals(root);
+                if (!sharded) {
+                    Path target = resolve(directory, name);
+                    Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+                    file = target;
+                }
+                String key = keyOf(file);
+                found.add(Map.entry(key, new Entry(Files.size(file),
+                        Files.getLastModifiedTime(file).toMillis(), kindOf(key))));
+            } catch (IOException e) {
+                System.err.println("Skipping cache file " + file + ": " + e.getMessage());
+            }
+        }
+
+        found.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        return found;
+    }
+
+    private void save() {
+        ObjectNode document = objectMapper.createObjectNode();
+        ArrayNode files = document.putArray("files");
+        synchronized (this) {
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                files.addObject()
+                        .put("path", entry.getKey())
+                        .put("size", entry.getValue().size)
+                        .put("lastAccess", entry.getValue().lastAccess)
+                        .put("kind", entry.getValue().kind.name());
+            }
+        }
+        Path indexFile = root.resolve(INDEX_FILE);
+        Path temp = root.resolve(INDEX_FILE + ".tmp");
+        try {
+            objectMapper.writeValue(temp.toFile(), document);
+            Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Failed to save disk cache index: " + e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            // A change made while saving has its own save coming, and keeps the marker
+            if (saveScheduled) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(root.resolve(DIRTY_MARKER));
+            } catch (IOException e) {
+                System.err.println("Failed to clear disk cache index marker: " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class Entry {
+        final long size;
+        final Kind kind;
+        long lastAccess;
+
+        Entry(long size, long lastAccess, Kind kind) {
+            this.size = size;
+            this.lastAccess = lastAccess;
+            this.kind = kind;
+        }
+    }
+
+    /**
+     * Disk cache counters
+     */
+    public static class Stats {
+        private final int files;
+        private final int thumbnails;
+        private final long bytes;
+        private final long quotaBytes;
+        private final long evictions;
+
+        public Stats(int files, int thumbnails, long bytes, long quotaBytes, long evictions) {
+            this.files = files;
+            this.thumbnails = thumbnails;
+            this.bytes = bytes;
+            this.quotaBytes = quotaBytes;
+            this.evictions = evictions;
+        }
+
+        public int getFiles() {
+            return files;
+        }
+
+        public int getThumbnails() {
+            return thumbnails;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getQuotaBytes() {
+            return quotaBytes;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d files (%d thumbnails), %.1f of %.0f MB, %d evicted", files, thumbnails,
+                    bytes / (1024.0 * 1024.0), quotaBytes / (1024.0 * 1024.0), evictions);
+        }
+    }
+}
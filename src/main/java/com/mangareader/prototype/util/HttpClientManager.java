@@ -0,0 +1,340 @@
+package com.mangareader.prototype.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import javax.net.ssl.SSLSession;
+
+/**
+ * HttpClientManager owns the one HTTP client the whole app uses (MangaSource
+ * API calls and ImageCache downloads), so connections and TLS sessions are
+ * reused per host instead of being set up again by every caller.
+ *
+ * - HTTP/2 where the server supports it, HTTP/1.1 keep-alive otherwise
+ * - Connect timeout on the client, request timeout on every request
+ * - gzip requested and transparently decoded for streamed API bodies
+ * - At most maxConcurrentPerHost requests in flight per host; the rest queue
+ * without blocking a thread
+ *
+ * Also provides the shared executor for blocking body reads (parsing a
+ * streamed response), so those never run on the client's own threads.
+ * shutdown() is called from MangaReaderApplication.stop().
+ */
+public class HttpClientManager {
+    public static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    public static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int DEFAULT_MAX_CONCURRENT_PER_HOST = 6;
+
+    private static final HttpClientManager instance = new HttpClientManager();
+
+    private final ExecutorService clientExecutor;
+    private final ExecutorService bodyExecutor;
+    private final HttpClient client;
+    private final Map<String, HostPermits> hostPermits = new ConcurrentHashMap<>();
+    private volatile int maxConcurrentPerHost = DEFAULT_MAX_CONCURRENT_PER_HOST;
+
+    private HttpClientManager() {
+        this.clientExecutor = Executors.newCachedThreadPool(daemonThreads("http-client"));
+        this.bodyExecutor = Executors.newCachedThreadPool(daemonThreads("http-body"));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(clientExecutor)
+                .build();
+    }
+
+    public static HttpClientManager getInstance() {
+        return instance;
+    }
+
+    public HttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * Executor for work that blocks on a response body
+     */
+    public ExecutorService getBodyExecutor() {
+        return bodyExecutor;
+    }
+
+    /**
+     * Applies to hosts seen after the change
+     */
+    public void setMaxConcurrentPerHost(int maxConcurrentPerHost) {
+        this.maxConcurrentPerHost = Math.max(1, maxConcurrentPerHost);
+    }
+
+    /**
+     * Send a request whose body is fully consumed by the handler (string, file,
+     * byte array). The host permit is held until the response completes.
+     */
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+            HttpResponse.BodyHandler<T> handler) {
+        Lease lease = new Lease(permitsFor(request));
+        CompletableFuture<HttpResponse<T>> result = send(request, handler, lease);
+        result.whenComplete((response, error) -> lease.release());
+        return result;
+    }
+
+    /**
+     * Send a request and hand back the body as a stream (gzip requested and
+     * decoded). The host permit is held until the caller closes the body.
+     */
+    public CompletableFuture<HttpResponse<InputStream>> sendStreaming(HttpRequest request) {
+        HttpRequest gzipRequest = HttpRequest.newBuilder(request, (name, value) -> true)
+                .header("Accept-Encoding", "gzip")
+                .build();
+        Lease lease = new Lease(permitsFor(request));
+        CompletableFuture<HttpResponse<InputStream>> result = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<InputStream>> send = send(gzipRequest,
+                HttpResponse.BodyHandlers.ofInputStream(), lease);
+
+        send.whenComplete((response, error) -> {
+            if (error != null) {
+                lease.release();
+                result.completeExceptionally(error);
+                return;
+            }
+            try {
+                InputStream body = new FilterInputStream(decode(response)) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            lease.release();
+                        }
+                    }
+                };
+                if (!result.complete(new StreamedResponse(response, body))) {
+                    body.close();
+                }
+            } catch (IOException e) {
+                lease.release();
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                send.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Stop the client's threads; called once when the application exits.
+     */
+    public void shutdown() {
+        clientExecutor.shutdownNow();
+        bodyExecutor.shutdownNow();
+    }
+
+    /**
+     * Wait for a host permit, then send. Cancelling the returned future
+     * withdraws from the permit queue or aborts the exchange.
+     */
+    private <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, HttpResponse.BodyHandler<T> handler,
+            Lease lease) {
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<?>> inFlight = new AtomicReference<>();
+
+        CompletableFuture<Void> permit = lease.permits.acquire();
+        inFlight.set(permit);
+        permit.thenCompose(ignored -> {
+            lease.acquired.set(true);
+            if (result.isDone()) {
+                lease.release();
+                return CompletableFuture.<HttpResponse<T>>failedFuture(new CancellationException());
+            }
+            CompletableFuture<HttpResponse<T>> exchange = client.sendAsync(request, handler);
+            inFlight.set(exchange);
+            return exchange;
+        }).whenComplete((response, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else if (!result.complete(response) && response.body() instanceof InputStream) {
+                closeQuietly((InputStream) response.body());
+            }
+        });
+
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                inFlight.get().cancel(true);
+                lease.release();
+            }
+        });
+        return result;
+    }
+
+    private static InputStream decode(HttpResponse<InputStream> response) throws IOException {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("");
+        if ("gzip".equalsIgnoreCase(encoding.trim())) {
+            return new GZIPInputStream(response.body());
+        }
+        return response.body();
+    }
+
+    private static void closeQuietly(InputStream in) {
+        try {
+            in.close();
+        } catch (IOException e) {
+            // Nothing left to do with an abandoned body
+        }
+    }
+
+    private HostPermits permitsFor(HttpRequest request) {
+        String host = request.uri().getHost();
+        String key = host != null ? host.toLowerCase() : "unknown";
+        return hostPermits.computeIfAbsent(key, h -> new HostPermits(maxConcurrentPerHost));
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Non-blocking counting semaphore: acquire() returns a future that
+     * completes when a slot is free.
+     */
+    private static final class HostPermits {
+        private final int max;
+        private int inUse;
+        private final Queue<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+        private HostPermits(int max) {
+            this.max = max;
+        }
+
+        private CompletableFuture<Void> acquire() {
+            synchronized (this) {
+                if (inUse < max) {
+                    inUse++;
+                    return CompletableFuture.completedFuture(null);
+                }
+                CompletableFuture<Void> waiter = new CompletableFuture<>();
+                waiters.add(waiter);
+                return waiter;
+            }
+        }
+
+        private void release() {
+            while (true) {
+                CompletableFuture<Void> next;
+                synchronized (this) {
+                    next = waiters.poll();
+                    if (next == null) {
+                        inUse--;
+                        return;
+                    }
+                }
+                // A waiter cancelled in the meantime passes the slot on
+                if (next.complete(null)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * One request's claim on a host permit. release() is idempotent and only
+     * gives a slot back once the permit was actually granted.
+     */
+    private static final class Lease {
+        private final HostPermits permits;
+        private final AtomicBoolean acquired = new AtomicBoolean();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(HostPermits permits) {
+            this.permits = permits;
+        }
+
+        private void release() {
+            if (acquired.get() && released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Response whose body is the decoded, permit-releasing stream
+     */
+    private static final class StreamedResponse implements HttpResponse<InputStream> {
+
+        private final HttpResponse<InputStream> delegate;
+        private final InputStream body;
+
+        private StreamedResponse(HttpResponse<InputStream> delegate, InputStream body) {
+            this.delegate = delegate;
+            this.body = body;
+        }
+
+        @Override
+        public InputStream body() {
+            return body;
+        }
+
+        @Override
+        public int statusCode() {
+            return delegate.statusCode();
+        }
+
+        @Override
+        public HttpRequest request() {
+            return delegate.request();
+        }
+
+        @Override
+        public Optional<HttpResponse<InputStream>> previousResponse() {
+            return delegate.previousResponse();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return delegate.headers();
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return delegate.sslSession();
+        }
+
+        @Override
+        public URI uri() {
+            return delegate.uri();
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return delegate.version();
+        }
+    }
+}
@@ -0,0 +1,573 @@
+package com.mangareader.prototype.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * HttpResponseCache keeps API response bodies on disk (./cache/http/) together
+ * with their validators, so navigating back to a manga does not download the
+ * same details/feed/search JSON again.
+ *
+ * - Fresh entries (younger than the TTL for their URL) are served without any
+ * network request
+ * - Stale entries are revalidated with If-None-Match / If-Modified-Since; a 304
+ * marks them fresh again and the stored body is reused
+ * - Bodies are written while the caller parses them (see Recorder), so a
+ * response is never buffered in memory just to be cached
+ *
+ * Each entry is one file: a small header (URL, ETag, Last-Modified) followed by
+ * the raw body. The file's modification time is the last time the entry was
+ * validated, which is what freshness and eviction are based on.
+ *
+ * TTLs are matched per endpoint with regexes on the URL (first match wins, a
+ * zero TTL means "never cache"). The total size is capped; the least recently
+ * validated entries are evicted first.
+ */
+public class HttpResponseCache {
+    private static final int ENTRY_MAGIC = 0x48524331; // "HRC1"
+    private static final String ENTRY_SUFFIX = ".http";
+    private static final String TEMP_PREFIX = "entry";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long DEFAULT_MAX_SIZE_BYTES = 100L * 1024 * 1024; // 100MB
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+    private static final HttpResponseCache instance = new HttpResponseCache();
+
+    private final Path cacheDir;
+    private final boolean diskCacheEnabled;
+    private final List<TtlRule> ttlRules = new CopyOnWriteArrayList<>();
+    private volatile long maxSizeBytes = DEFAULT_MAX_SIZE_BYTES;
+    private final AtomicLong currentSizeBytes = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private HttpResponseCache() {
+        String projectDir = System.getProperty("user.dir");
+        this.cacheDir = Paths.get(projectDir, "cache", "http");
+
+        boolean cacheCreated = false;
+        try {
+            Files.createDirectories(cacheDir);
+            cacheCreated = true;
+        } catch (IOException e) {
+            System.err.println("Failed to create HTTP cache directory: " + e.getMessage());
+        }
+        this.diskCacheEnabled = cacheCreated;
+        deleteTempFiles();
+        currentSizeBytes.set(scanSize());
+
+        // First match wins
+        ttlRules.add(new TtlRule(Pattern.compile("/at-home/server/"), Duration.ZERO)); // node URLs expire
+        ttlRules.add(new TtlRule(Pattern.compile("/manga/tag"), Duration.ofDays(7))); // tag list rarely changes
+        ttlRules.add(new TtlRule(Pattern.compile("/manga/[^/?]+/feed"), Duration.ofMinutes(15)));
+        ttlRules.add(new TtlRule(Pattern.compile("/manga/[^/?]+\\?"), Duration.ofHours(1)));
+        ttlRules.add(new TtlRule(Pattern.compile("/manga\\?"), Duration.ofMinutes(10)));
+    }
+
+    public static HttpResponseCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Set the TTL for URLs matching the regex. Takes precedence over all rules
+     * configured before it. Duration.ZERO disables caching for those URLs.
+     */
+    public void setTtl(String urlPattern, Duration ttl) {
+        ttlRules.add(0, new TtlRule(Pattern.compile(urlPattern), ttl));
+    }
+
+    public Duration getTtl(String url) {
+        for (TtlRule rule : ttlRules) {
+            if (rule.pattern.matcher(url).find()) {
+                return rule.ttl;
+            }
+        }
+        return DEFAULT_TTL;
+    }
+
+    public void setMaxSize(long bytes) {
+        this.maxSizeBytes = bytes;
+        evictIfNeeded();
+    }
+
+    public long getMaxSize() {
+        return maxSizeBytes;
+    }
+
+    public boolean isCacheable(String url) {
+        return diskCacheEnabled && !getTtl(url).isZero();
+    }
+
+    /**
+     * Look up the stored response for a URL, fresh or stale.
+     *
+     * @return the entry, or null if nothing usable is stored
+     */
+    public Entry lookup(String url) {
+        if (!isCacheable(url)) {
+            return null;
+        }
+        Path file = entryFile(url);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != ENTRY_MAGIC || !url.equals(in.readUTF())) {
+                return null;
+            }
+            String etag = emptyToNull(in.readUTF());
+            String lastModified = emptyToNull(in.readUTF());
+            long validatedAt = Files.getLastModifiedTime(file).toMillis();
+            return new Entry(url, file, etag, lastModified, validatedAt, getTtl(url));
+        } catch (IOException e) {
+            System.err.println("Discarding unreadable HTTP cache entry for " + url + ": " + e.getMessage());
+            delete(file);
+            return null;
+        }
+    }
+
+    /**
+     * Drop an entry whose body could not be read back
+     */
+    public void discard(Entry entry) {
+        delete(entry.file);
+    }
+
+    /**
+     * Record a cache hit for an entry served without touching the network
+     */
+    public void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * Record a full download (no entry, or the server sent a new body)
+     */
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * The server answered 304 Not Modified: the stored body is fresh again.
+     */
+    public void markRevalidated(Entry entry) {
+        revalidations.increment();
+        try {
+            Files.setLastModifiedTime(entry.file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            System.err.println("Failed to refresh HTTP cache entry: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Start recording a 2xx response. Read the body through
+     * {@link Recorder#stream()} and call {@link Recorder#commit()} once it has
+     * been handled successfully; closing without committing discards it.
+     * Responses that must not be cached are passed through untouched.
+     */
+    public Recorder record(String url, HttpHeaders headers, InputStream body) {
+        boolean noStore = headers.allValues("Cache-Control").stream()
+                .anyMatch(value -> value.toLowerCase().contains("no-store"));
+        if (!isCacheable(url) || noStore) {
+            return new Recorder(body);
+        }
+        try {
+            Path temp = Files.createTempFile(cacheDir, TEMP_PREFIX, TEMP_SUFFIX);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)));
+            out.writeInt(ENTRY_MAGIC);
+            out.writeUTF(url);
+            out.writeUTF(headers.firstValue("ETag").orElse(""));
+            out.writeUTF(headers.firstValue("Last-Modified").orElse(""));
+            return new Recorder(body, entryFile(url), temp, out);
+        } catch (IOException e) {
+            System.err.println("Failed to start HTTP cache entry for " + url + ": " + e.getMessage());
+            return new Recorder(body);
+        }
+    }
+
+    public void clear() {
+        for (Path file : listEntries()) {
+            delete(file);
+        }
+        currentSizeBytes.set(0);
+    }
+
+    public long getSize() {
+        return currentSizeBytes.get();
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), revalidations.sum(), stores.sum(), evictions.sum(),
+                currentSizeBytes.get());
+    }
+
+    private void commitEntry(Path temp, Path target) throws IOException {
+        long oldSize = Files.exists(target) ? Files.size(target) : 0;
+        long newSize = Files.size(temp);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        currentSizeBytes.addAndGet(newSize - oldSize);
+        stores.increment();
+        evictIfNeeded();
+    }
+
+    /**
+     * Drop the least recently validated entries until the cache fits the cap
+     */
+    private void evictIfNeeded() {
+        if (currentSizeBytes.get() <= maxSizeBytes) {
+            return;
+        }
+        synchronized (this) {
+            List<Path> entries = listEntries();
+            entries.sort(Comparator.comparingLong(HttpResponseCache::lastModifiedMillis));
+            for (Path file : entries) {
+                if (currentSizeBytes.get() <= maxSizeBytes) {
+                    break;
+                }
+                try {
+                    long size = Files.size(file);
+                    if (Files.deleteIfExists(file)) {
+                        currentSizeBytes.addAndGet(-size);
+                        evictions.increment();
+                    }
+                } catch (IOException e) {
+                    System.err.println("Failed to evict HTTP cache entry: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private List<Path> listEntries() {
+        List<Path> entries = new ArrayList<>();
+        if (!diskCacheEnabled) {
+            return entries;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDir, "*" + ENTRY_SUFFIX)) {
+            stream.forEach(entries::add);
+        } catch (IOException e) {
+            System.err.println("Error listing HTTP cache: " + e.getMessage());
+        }
+        return entries;
+    }
+
+    /**
+     * Remove bodies left half-written by a previous run that stopped while
+     * recording them
+     */
+    private void deleteTempFiles() {
+        if (!diskCacheEnabled) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDir, TEMP_PREFIX + "*" + TEMP_SUFFIX)) {
+            for (Path temp : stream) {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            System.err.println("Error cleaning up HTTP cache temp files: " + e.getMessage());
+        }
+    }
+
+    private long scanSize() {
+        long total = 0;
+        for (Path file : listEntries()) {
+            try {
+                total += Files.size(file);
+            } catch (IOException e) {
+                // Entry removed while scanning
+            }
+        }
+        return total;
+    }
+
+    private static long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            long size = Files.size(file);
+            if (Files.deleteIfExists(file)) {
+                currentSizeBytes.addAndGet(-size);
+            }
+        } catch (IOException e) {
+            System.err.println("Error deleting HTTP cache entry: " + e.getMessage());
+        }
+    }
+
+    private Path entryFile(String url) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("MD5");
+            byte[] hash = md.digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (byte b : hash) {
+                sb.append(String.format("%02x", b));
+            }
+            return cacheDir.resolve(sb.toString() + ENTRY_SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            return cacheDir.resolve(String.valueOf(url.hashCode()) + ENTRY_SUFFIX);
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static final class TtlRule {
+        private final Pattern pattern;
+        private final Duration ttl;
+
+        private TtlRule(Pattern pattern, Duration ttl) {
+            this.pattern = pattern;
+            this.ttl = ttl;
+        }
+    }
+
+    /**
+     * A stored response. Stale entries are still returned by lookup() so their
+     * validators can be sent with the next request.
+     */
+    public static final class Entry {
+
+        private final String url;
+        private final Path file;
+        private final String etag;
+        private final String lastModified;
+        private final long validatedAt;
+        private final Duration ttl;
+
+        private Entry(String url, Path file, String etag, String lastModified, long validatedAt, Duration ttl) {
+            this.url = url;
+            this.file = file;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.validatedAt = validatedAt;
+            this.ttl = ttl;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public boolean isFresh() {
+            return System.currentTimeMillis() - validatedAt < ttl.toMillis();
+        }
+
+        /**
+         * Open the stored body, positioned after the entry header
+         */
+        public InputStream openBody() throws IOException {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+            try {
+                in.readInt();
+                in.readUTF();
+                in.readUTF();
+                in.readUTF();
+                return in;
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Copies a response body into a temp file as it is read, and moves it into
+     * place on commit().
+     */
+    public final class Recorder implements Closeable {
+        private final InputStream stream;
+        private final Path target;
+        private final Path temp;
+        private final OutputStream out;
+        private boolean writeFailed;
+        private boolean committed;
+
+        private Recorder(InputStream body) {
+            this.stream = body;
+            this.target = null;
+            this.temp = null;
+            this.out = null;
+        }
+
+        private Recorder(InputStream body, Path target, Path temp, OutputStream out) {
+            this.target = target;
+            this.temp = temp;
+            this.out = out;
+            this.stream = new FilterInputStream(body) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        copy(new byte[] { (byte) b }, 0, 1);
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int n = super.read(buffer, offset, length);
+                    if (n > 0) {
+                        copy(buffer, offset, n);
+                    }
+                    return n;
+                }
+
+                @Override
+                public void close() {
+                    // The caller owns the underlying body
+                }
+            };
+        }
+
+        public InputStream stream() {
+            return stream;
+        }
+
+        /**
+         * Read whatever the parser left unread and store the entry
+         */
+        public void commit() throws IOException {
+            if (temp == null || committed) {
+                return;
+            }
+            byte[] buffer = new byte[8192];
+            while (stream.read(buffer) >= 0) {
+                // drain into the temp file
+            }
+            out.close();
+            committed = true;
+            if (writeFailed) {
+                Files.deleteIfExists(temp);
+                return;
+            }
+            commitEntry(temp, target);
+        }
+
+        @Override
+        public void close() {
+            if (temp == null || committed) {
+                return;
+            }
+            try {
+                out.close();
+            } catch (IOException e) {
+                // Discarding anyway
+            }
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                System.err.println("Failed to delete HTTP cache temp file: " + e.getMessage());
+            }
+        }
+
+        private void copy(byte[] buffer, int offset, int length) {
+            if (writeFailed) {
+                return;
+            }
+            try {
+                out.write(buffer, offset, length);
+            } catch (IOException e) {
+                writeFailed = true;
+                System.err.println("Failed to write HTTP cache entry: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * HTTP cache counters
+     */
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long revalidations;
+        private final long stores;
+        private final long evictions;
+        private final long sizeBytes;
+
+        public Stats(long hits, long misses, long revalidations, long stores, long evictions, long sizeBytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.revalidations = revalidations;
+            this.stores = stores;
+            this.evictions = evictions;
+            this.sizeBytes = sizeBytes;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getRevalidations() {
+            return revalidations;
+        }
+
+        public long getStores() {
+            return stores;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        public double getHitRate() {
+            long total = hits + misses + revalidations;
+            return total > 0 ? (double) (hits + revalidations) / total : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("HTTP cache: %d hits, %d revalidated, %d misses (%.0f%% served from cache), "
+                    + "%d stored, %d evicted, %.1f MB", hits, revalidations, misses, getHitRate() * 100,
+                    stores, evictions, sizeBytes / (1024.0 * 1024.0));
+        }
+    }
+}
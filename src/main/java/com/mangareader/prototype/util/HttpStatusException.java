@@ -0,0 +1,36 @@
+package com.mangareader.prototype.util;
+
+import java.io.IOException;
+
+/**
+ * A request that reached the server but got a non-success status back.
+ * Carries the status so callers can tell retryable failures (429, 5xx) from
+ * permanent ones (404, 400...).
+ */
+public class HttpStatusException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final String url;
+
+    public HttpStatusException(int statusCode, String url) {
+        super("Unexpected response status: " + statusCode + " for " + url);
+        this.statusCode = statusCode;
+        this.url = url;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Too many requests or a server-side failure; worth trying again later
+     */
+    public boolean isRetryable() {
+        return statusCode == 429 || statusCode == 408 || statusCode >= 500;
+    }
+}
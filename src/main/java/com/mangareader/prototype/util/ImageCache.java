@@ -1,44 +1,111 @@
 package com.mangareader.prototype.util;
 
-import java.io.FileOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.prefs.Preferences;
 
+import javax.imageio.ImageIO;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
 import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import javafx.stage.Screen;
 
 /**
  * ImageCache provides two-level caching for manga cover images:
  * 
- * 1. Memory Cache (ConcurrentHashMap): Fast access, cleared on app restart
- *    - Thread-safe for concurrent image loading
- *    - Key: image URL, Value: JavaFX Image object
+ * 1. Memory Cache (ImageMemoryCache): Fast access, cleared on app restart
+ *    - Bounded by decoded size (budget in Settings, stored in Preferences),
+ *      least recently used images are dropped first
+ *    - Images on screen are pinned (pinWhileDisplayed) and never dropped
+ *    - Images are decoded at the size they are shown at (rounded up to
+ *      SIZE_BUCKET pixels), one entry per URL and size; a smaller size is
+ *      scaled down from a larger decode already in memory when there is one
+ *    - Key: image URL (full size) or URL#WIDTHxHEIGHT, Value: JavaFX Image
  * 
  * 2. Disk Cache (./cache/images/): Persistent across app restarts
- *    - Images saved with MD5-hashed filenames to avoid collisions
+ *    - Images saved with MD5-hashed filenames to avoid collisions, in shard
+ *      subdirectories named after the first two hex characters
  *    - Validates file size and integrity before serving
+ *    - Tracked by a DiskCacheIndex: size is known without walking the
+ *      directory, and least recently used files are deleted once the quota
+ *      (in Settings, stored in Preferences) is exceeded
+ *
+ * 3. Thumbnails (./cache/images/thumbnails/): each size an image was asked
+ *    for, already scaled (JPEG, or PNG when it has transparency; written in
+ *    the background once it has been decoded), so later runs load a small file instead of decoding the
+ *    original again
  * 
  * Why we need this:
  * - Theme changes would reload all covers without cache
- * - MangaDex API rate limiting (5 requests/second)
+ * - MangaDex API rate limiting (5 requests/second); downloads are paced by
+ *   the shared RateLimiter and go through the shared HttpClientManager client
  * - Improved UX with instant cover display
  * 
- * Thread-Safety: Uses ConcurrentHashMap for safe parallel image loading
+ * Thread-Safety: the memory tier is synchronized internally; images are
+ * loaded outside of its lock. Downloads into the disk cache are
+ * single-flight per URL (concurrent misses share one download, each decodes
+ * its own size) and land in a temp file that is moved into place, so no one
+ * reads a partial file; a failed download is not remembered, the next
+ * request tries again.
  */
 public class ImageCache {
+    private static final String MEMORY_BUDGET_PREFERENCE_KEY = "cache.memoryBudgetMB";
+    // A quarter of the heap, at most 256 MB
+    private static final long DEFAULT_MEMORY_BUDGET_MB = Math.min(256,
+            Runtime.getRuntime().maxMemory() / (4 * 1024 * 1024));
+    private static final String DISK_QUOTA_PREFERENCE_KEY = "cache.diskQuotaMB";
+    private static final long DEFAULT_DISK_QUOTA_MB = 1024;
+    private static final String PINNED_IMAGE_PROPERTY = "imageCache.pinnedImage";
+    // Requested sizes are rounded up to a multiple of this, so close sizes share one decode
+    private static final int SIZE_BUCKET = 32;
+    private static final String PLACEHOLDER_PREFIX = "https://via.placeholder.com/";
+
     private static final ImageCache instance = new ImageCache();
-    private final Map<String, Image> memoryCache = new ConcurrentHashMap<>();
+    private final Preferences preferences;
+    private final ImageMemoryCache memoryCache;
     private final Path cacheDir;
+    private final Path thumbnailDir;
+    private final DiskCacheIndex diskIndex;
     private final boolean diskCacheEnabled;
+    // Thumbnails are encoded, and variants for the FX thread scaled, off the loading threads, one at a time
+    private final ExecutorService thumbnailWriter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "thumbnail-writer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private final Set<Path> pendingThumbnails = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingScales = ConcurrentHashMap.newKeySet();
+    private final SingleFlight<String, Path> downloads = new SingleFlight<>();
+    private volatile NetworkProfile localNetworkProfile = NetworkProfile.UNLIMITED;
+    private volatile double renderScale;
 
     private static final double DEFAULT_WIDTH = 0;
     private static final double DEFAULT_HEIGHT = 0;
@@ -47,12 +114,17 @@ public class ImageCache {
     private static final boolean DEFAULT_BACKGROUND_LOADING = true;
 
     private ImageCache() {
+        preferences = Preferences.userNodeForPackage(ImageCache.class);
+        long budgetMB = preferences.getLong(MEMORY_BUDGET_PREFERENCE_KEY, DEFAULT_MEMORY_BUDGET_MB);
+        memoryCache = new ImageMemoryCache(Math.max(1, budgetMB) * 1024 * 1024);
+
         String projectDir = System.getProperty("user.dir");
         this.cacheDir = Paths.get(projectDir, "cache", "images");
+        this.thumbnailDir = cacheDir.resolve("thumbnails");
 
         boolean cacheCreated = false;
         try {
-            Files.createDirectories(cacheDir);
+            Files.createDirectories(thumbnailDir);
             cacheCreated = true;
             System.out.println("Image cache directory created at: " + cacheDir.toAbsolutePath());
         } catch (IOException e) {
@@ -60,6 +132,8 @@ public class ImageCache {
         }
 
         this.diskCacheEnabled = cacheCreated;
+        long quotaMB = preferences.getLong(DISK_QUOTA_PREFERENCE_KEY, DEFAULT_DISK_QUOTA_MB);
+        this.diskIndex = new DiskCacheIndex(cacheDir, Math.max(1, quotaMB) * 1024 * 1024);
     }
 
     public static ImageCache getInstance() {
@@ -74,7 +148,9 @@ public class ImageCache {
     }
 
     /**
-     * Get cached image or load and cache if not present with custom dimensions
+     * Get cached image or load and cache if not present with custom dimensions.
+     * The image is decoded to fit width x height (0 for either means no limit
+     * on it), not at its full size.
      */
     public Image getImage(String url, double width, double height) {
         if (url == null || url.isEmpty()) {
@@ -86,8 +162,210 @@ public class ImageCache {
             return getPlaceholderImage("Invalid+URL", width, height);
         }
 
-        String cacheKey = url;
-        return memoryCache.computeIfAbsent(cacheKey, k -> loadImageWithDiskCache(url, width, height));
+        int decodeWidth = bucket(width);
+        int decodeHeight = bucket(height);
+        String cacheKey = cacheKey(url, decodeWidth, decodeHeight);
+        Image cached = memoryCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        Image image = scaleFromCachedVariant(url, decodeWidth, decodeHeight);
+        if (image != null && memoryCache.getGroup(url).containsValue(image)) {
+            // The full-size image is no bigger than asked for, or a larger
+            // variant stands in while the smaller one is scaled
+            return image;
+        }
+        if (image == null) {
+            Image thumbnail = loadThumbnail(url, decodeWidth, decodeHeight);
+            if (thumbnail != null) {
+                return memoryCache.putIfAbsent(cacheKey, url, thumbnail);
+            }
+            image = loadOriginal(url, decodeWidth, decodeHeight);
+        }
+        saveThumbnailWhenLoaded(url, decodeWidth, decodeHeight, image);
+        return memoryCache.putIfAbsent(cacheKey, url, image);
+    }
+
+    private Image loadOriginal(String url, int width, int height) {
+        if (ArchiveReader.isArchiveUri(url)) {
+            return loadArchiveImage(url, width, height);
+        }
+        if (isLocalFile(url)) {
+            // Already on disk (fixtures), nothing to gain from the disk cache
+            return loadImage(url, width, height);
+        }
+        return loadImageWithDiskCache(url, width, height);
+    }
+
+    /**
+     * Keep the image an ImageView shows in the memory cache for as long as
+     * the view is part of a scene. Follows the view's image and scene, so it
+     * only needs to be called once per view.
+     */
+    public void pinWhileDisplayed(ImageView imageView) {
+        InvalidationListener update = obs -> {
+            Image shown = imageView.getScene() != null ? imageView.getImage() : null;
+            Image pinned = (Image) imageView.getProperties().get(PINNED_IMAGE_PROPERTY);
+            if (shown == pinned) {
+                return;
+            }
+            if (pinned != null) {
+                memoryCache.unpin(pinned);
+                imageView.getProperties().remove(PINNED_IMAGE_PROPERTY);
+            }
+            if (shown != null) {
+                memoryCache.pin(shown);
+                imageView.getProperties().put(PINNED_IMAGE_PROPERTY, shown);
+            }
+        };
+        imageView.imageProperty().addListener(update);
+        imageView.sceneProperty().addListener(update);
+        update.invalidated(null);
+    }
+
+    /**
+     * Download an image into the cache ahead of time (covers of the next
+     * search page), so a later getImage() with the same size finds it. Does
+     * nothing when the image is already cached or local. Interruptible: a
+     * cancelled prefetch stops waiting for its rate limiter permit or
+     * download.
+     */
+    public void prefetchImage(String url, double width, double height) throws InterruptedException {
+        if (url == null || url.isEmpty() || isLocalFile(url) || !diskCacheEnabled || !isValidImageUrl(url)) {
+            return;
+        }
+        int decodeWidth = bucket(width);
+        int decodeHeight = bucket(height);
+        String cacheKey = cacheKey(url, decodeWidth, decodeHeight);
+        Path cachedFile = originalFile(url);
+        if (memoryCache.contains(cacheKey) || Files.exists(cachedFile)) {
+            return;
+        }
+        Image image = downloadAndCacheImage(url, cachedFile, decodeWidth, decodeHeight);
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException("Prefetch cancelled: " + url);
+        }
+        if (image != null) {
+            saveThumbnailWhenLoaded(url, decodeWidth, decodeHeight, image);
+            memoryCache.putIfAbsent(cacheKey, url, image);
+        }
+    }
+
+    /**
+     * Simulated link for file: images passed to fetchImage(), so benchmarks
+     * against local fixtures still see realistic page load times
+     */
+    public void setLocalNetworkProfile(NetworkProfile networkProfile) {
+        this.localNetworkProfile = networkProfile != null ? networkProfile : NetworkProfile.UNLIMITED;
+    }
+
+    /**
+     * Download an image without caching it (reader pages). Unlike getImage()
+     * this reports failures, so the caller can tell an expired URL (403/410)
+     * from other errors. Connection errors, timeouts, 429 and 5xx are retried
+     * as the RetryPolicy says, with rate limit headers fed back into the
+     * RateLimiter. Successful downloads feed the bandwidth estimate in
+     * ImageQualityManager. Interrupting the caller aborts the download.
+     */
+    public Image fetchImage(String url) throws IOException, InterruptedException {
+        if (isLocalFile(url)) {
+            return fetchLocalImage(url);
+        }
+        RateLimiter rateLimiter = RateLimiter.getInstance();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(HttpClientManager.REQUEST_TIMEOUT)
+                .GET()
+                .build();
+        for (int attempt = 0;; attempt++) {
+            rateLimiter.acquire(url);
+            long start = System.nanoTime();
+            AtomicLong headersAt = new AtomicLong();
+            CompletableFuture<HttpResponse<byte[]>> exchange = HttpClientManager.getInstance()
+                    .sendAsync(request, responseInfo -> {
+                        headersAt.set(System.nanoTime());
+                        return HttpResponse.BodySubscribers.ofByteArray();
+                    });
+            IOException failure;
+            long retryAfterNanos = 0;
+            try {
+                HttpResponse<byte[]> response = exchange.get();
+                retryAfterNanos = rateLimiter.onResponse(url, response.statusCode(), response.headers());
+                if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                    ImageQualityManager.getInstance().recordDownload(response.body().length,
+                            headersAt.get() - start, System.nanoTime() - start);
+                    return decodePage(url, response.body());
+                }
+                HttpStatusException status = new HttpStatusException(response.statusCode(), url);
+                if (!status.isRetryable()) {
+                    throw status;
+                }
+                failure = status;
+            } catch (ExecutionException e) {
+                if (!(e.getCause() instanceof IOException)) {
+                    throw new IOException(e.getCause());
+                }
+                failure = (IOException) e.getCause();
+            } catch (InterruptedException e) {
+                exchange.cancel(true); // stops the body from streaming on
+                throw e;
+            }
+
+            if (!RetryPolicy.shouldRetry(attempt, retryAfterNanos)) {
+                throw failure;
+            }
+            long delayNanos = RetryPolicy.delayNanos(attempt, retryAfterNanos);
+            System.err.printf("Page download failed (%s), retry %d/%d in %d ms%n", failure.getMessage(),
+                    attempt + 1, RetryPolicy.MAX_RETRIES, TimeUnit.NANOSECONDS.toMillis(delayNanos));
+            TimeUnit.NANOSECONDS.sleep(delayNanos);
+        }
+    }
+
+    private static Image decodePage(String url, byte[] bytes) throws IOException {
+        Image image = new Image(new ByteArrayInputStream(bytes));
+        if (image.isError()) {
+            throw new IOException("Corrupted image data from " + url);
+        }
+        return image;
+    }
+
+    private Image fetchLocalImage(String url) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        byte[] bytes;
+        try {
+            bytes = ArchiveReader.isArchiveUri(url)
+                    ? ArchiveReader.getInstance().readEntry(url)
+                    : Files.readAllBytes(Paths.get(URI.create(url)));
+        } catch (NoSuchFileException e) {
+            throw new HttpStatusException(404, url);
+        }
+        NetworkProfile network = localNetworkProfile;
+        if (network != NetworkProfile.UNLIMITED) {
+            // Only a simulated link says anything about the network; a disk
+            // read would reset AUTO's slow-link detection
+            network.simulate(bytes.length);
+            ImageQualityManager.getInstance().recordDownload(bytes.length, network.getLatency().toNanos(),
+                    System.nanoTime() - start);
+        }
+        return decodePage(url, bytes);
+    }
+
+    /**
+     * Cover straight from a CBZ/ZIP entry (local archives)
+     */
+    private Image loadArchiveImage(String url, double width, double height) {
+        try {
+            Image image = new Image(new ByteArrayInputStream(ArchiveReader.getInstance().readEntry(url)),
+                    width, height, DEFAULT_PRESERVE_RATIO, DEFAULT_SMOOTH);
+            if (!image.isError()) {
+                return image;
+            }
+            System.err.println("Corrupted image in archive: " + url);
+        } catch (IOException e) {
+            System.err.println("Error reading image from archive: " + url + " | " + e.getMessage());
+        }
+        return new Image("https://via.placeholder.com/180x270?text=Error",
+                width, height, DEFAULT_PRESERVE_RATIO, DEFAULT_SMOOTH, DEFAULT_BACKGROUND_LOADING);
     }
 
     /**
@@ -101,7 +379,8 @@ public class ImageCache {
         String placeholderUrl = String.format("https://via.placeholder.com/%dx%d?text=%s",
                 (int) width, (int) height, text);
         String cacheKey = placeholderUrl + "_" + width + "x" + height;
-        return memoryCache.computeIfAbsent(cacheKey, k -> loadImage(placeholderUrl, width, height));
+        Image cached = memoryCache.get(cacheKey);
+        return cached != null ? cached : memoryCache.putIfAbsent(cacheKey, loadImage(placeholderUrl, width, height));
     }
 
     /**
@@ -122,15 +401,19 @@ public class ImageCache {
     }
 
     /**
-     * Remove specific image from cache
+     * Remove specific image from cache, at every size
      */
     public void removeFromCache(String url) {
-        memoryCache.remove(url);
+        memoryCache.removeGroup(url);
         if (diskCacheEnabled) {
             try {
-                String filename = getCacheFileName(url);
-                Path cachedFile = cacheDir.resolve(filename);
-                Files.deleteIfExists(cachedFile);
+                diskIndex.delete(originalFile(url));
+                Path shard = thumbnailFile(url, 0, 0).getParent();
+                try (DirectoryStream<Path> thumbnails = Files.newDirectoryStream(shard, hash(url) + "_*")) {
+                    for (Path thumbnail : thumbnails) {
+                        diskIndex.delete(thumbnail);
+                    }
+                }
             } catch (Exception e) {
                 System.err.println("Error removing cached file: " + e.getMessage());
             }
@@ -144,72 +427,176 @@ public class ImageCache {
         return memoryCache.size();
     }
 
+    public ImageMemoryCache.Stats getMemoryStats() {
+        return memoryCache.getStats();
+    }
+
+    public long getMemoryBudgetMB() {
+        return memoryCache.getBudgetBytes() / (1024 * 1024);
+    }
+
+    /**
+     * Set the memory cache budget and remember it; shrinking it evicts right
+     * away
+     */
+    public void setMemoryBudgetMB(long budgetMB) {
+        long clamped = Math.max(1, budgetMB);
+        memoryCache.setBudgetBytes(clamped * 1024 * 1024);
+        preferences.putLong(MEMORY_BUDGET_PREFERENCE_KEY, clamped);
+    }
+
     /**
-     * Get disk cache size for debugging
+     * Get disk cache size (kept by the index, no directory walk)
      */
     public long getDiskCacheSize() {
         if (!diskCacheEnabled)
             return 0;
 
-        try {
-            return Files.walk(cacheDir)
-                    .filter(Files::isRegularFile)
-                    .mapToLong(path -> {
-                        try {
-                            return Files.size(path);
-                        } catch (IOException e) {
-                            return 0;
-                        }
-                    })
-                    .sum();
-        } catch (IOException e) {
-            return 0;
-        }
+        return diskIndex.getTotalBytes();
+    }
+
+    public DiskCacheIndex.Stats getDiskStats() {
+        return diskIndex.getStats();
+    }
+
+    public long getDiskQuotaMB() {
+        return diskIndex.getQuotaBytes() / (1024 * 1024);
+    }
+
+    /**
+     * Set the disk cache quota and remember it; shrinking it deletes the
+     * least recently used files right away
+     */
+    public void setDiskQuotaMB(long quotaMB) {
+        long clamped = Math.max(1, quotaMB);
+        diskIndex.setQuotaBytes(clamped * 1024 * 1024);
+        preferences.putLong(DISK_QUOTA_PREFERENCE_KEY, clamped);
+    }
+
+    /**
+     * Save the disk cache index (on exit)
+     */
+    public void shutdown() {
+        diskIndex.flush();
     }
 
     private boolean isValidImageUrl(String url) {
         try {
             URL testUrl = URI.create(url).toURL();
             String protocol = testUrl.getProtocol();
-            return "http".equals(protocol) || "https".equals(protocol);
+            return "http".equals(protocol) || "https".equals(protocol) || "file".equals(protocol)
+                    || ArchiveReader.isArchiveUri(url);
         } catch (Exception e) {
             return false;
         }
     }
 
+    private static boolean isLocalFile(String url) {
+        return url.startsWith("file:") || ArchiveReader.isArchiveUri(url);
+    }
+
     private Image downloadAndCacheImage(String url, Path cachedFile, double width, double height) {
         try {
-            URL imageUrl = URI.create(url).toURL();
-            try (ReadableByteChannel rbc = Channels.newChannel(imageUrl.openStream());
-                    FileOutputStream fos = new FileOutputStream(cachedFile.toFile())) {
-                fos.getChannel().transferFrom(rbc, 0, Long.MAX_VALUE);
-            }
-
-            if (Files.size(cachedFile) < 1024) {
-                System.err.println("Downloaded file too small, likely corrupted: " + url);
-                Files.deleteIfExists(cachedFile);
+            Path downloaded = downloadToDiskCache(url, cachedFile);
+            if (downloaded == null) {
                 return null;
             }
 
-            String fileUri = cachedFile.toUri().toString();
-            Image testImage = new Image(fileUri, 0, 0, DEFAULT_PRESERVE_RATIO, DEFAULT_SMOOTH,
+            String fileUri = downloaded.toUri().toString();
+            Image testImage = new Image(fileUri, width, height, DEFAULT_PRESERVE_RATIO, DEFAULT_SMOOTH,
                     DEFAULT_BACKGROUND_LOADING);
 
             if (testImage.isError()) {
                 System.err.println("Downloaded image is corrupted: " + url);
-                Files.deleteIfExists(cachedFile);
+                diskIndex.delete(downloaded);
                 return null;
             }
 
             return testImage;
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             System.err.println("Error downloading and caching image: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Download an image into the disk cache, or wait for the download of the
+     * same URL already in flight.
+     *
+     * @return the cached file, or null when the download failed
+     */
+    private Path downloadToDiskCache(String url, Path cachedFile) throws InterruptedException {
+        while (true) {
+            CompletableFuture<Path> download = downloads.execute(url, () -> download(url, cachedFile));
             try {
-                Files.deleteIfExists(cachedFile);
-            } catch (IOException cleanupError) {
-                System.err.println("Error cleaning up corrupted cache file: " + cleanupError.getMessage());
+                return download.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof InterruptedException && !Thread.currentThread().isInterrupted()) {
+                    continue; // the caller running the download was cancelled, not this one
+                }
+                System.err.println("Error downloading image: " + url + " | " + e.getCause().getMessage());
+                return null;
             }
-            return null;
+        }
+    }
+
+    /**
+     * Runs on the thread of the first caller; completes with the cached file
+     */
+    private CompletableFuture<Path> download(String url, Path cachedFile) {
+        Path temp = null;
+        CompletableFuture<HttpResponse<Path>> exchange = null;
+        try {
+            // Unique per download, so a retry never writes into a file an
+            // abandoned exchange may still be streaming into
+            String name = cachedFile.getFileName().toString();
+            temp = Files.createTempFile(cachedFile.getParent(), name.substring(0, name.lastIndexOf('.')), ".tmp");
+            RateLimiter.getInstance().acquire(url);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(HttpClientManager.REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            exchange = HttpClientManager.getInstance().sendAsync(request, HttpResponse.BodyHandlers.ofFile(temp));
+            HttpResponse<Path> response = exchange.get();
+            if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                throw new HttpStatusException(response.statusCode(), url);
+            }
+            if (Files.size(temp) < 1024) {
+                throw new IOException("Downloaded file too small, likely corrupted: " + url);
+            }
+
+            Files.move(temp, cachedFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            diskIndex.recordWrite(cachedFile, DiskCacheIndex.Kind.ORIGINAL);
+            return CompletableFuture.completedFuture(cachedFile);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (exchange != null) {
+                exchange.cancel(true); // stops the body from streaming on into temp
+            }
+            deletePartialDownload(temp);
+            return CompletableFuture.failedFuture(e instanceof ExecutionException ? e.getCause() : e);
+        }
+    }
+
+    /**
+     * Remove a failed download's temp file. If it is still open (Windows
+     * refuses to delete it then), it goes on exit; the disk cache index also
+     * drops leftover .tmp files when it rebuilds.
+     */
+    private static void deletePartialDownload(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            System.err.println("Partial download still in use, removing it on exit: " + temp.getFileName());
+            temp.toFile().deleteOnExit();
         }
     }
 
@@ -227,34 +614,35 @@ public class ImageCache {
         }
 
         try {
-            String filename = getCacheFileName(url);
-            Path cachedFile = cacheDir.resolve(filename);
+            Path cachedFile = originalFile(url);
+            String filename = cachedFile.getFileName().toString();
 
             if (Files.exists(cachedFile)) {
                 System.out.println("Loading image from disk cache: " + filename);
 
                 if (Files.size(cachedFile) < 1024) {
                     System.err.println("Cached file too small, removing: " + filename);
-                    Files.deleteIfExists(cachedFile);
+                    diskIndex.delete(cachedFile);
                     return downloadAndCacheImage(url, cachedFile, width, height);
                 }
 
                 try {
                     String fileUri = cachedFile.toUri().toString();
-                    Image cachedImage = new Image(fileUri, 0, 0, DEFAULT_PRESERVE_RATIO, DEFAULT_SMOOTH,
+                    Image cachedImage = new Image(fileUri, width, height, DEFAULT_PRESERVE_RATIO, DEFAULT_SMOOTH,
                             DEFAULT_BACKGROUND_LOADING);
 
                     if (cachedImage.isError()) {
                         System.err.println("Cached image is corrupted, re-downloading: " + filename);
-                        Files.deleteIfExists(cachedFile);
+                        diskIndex.delete(cachedFile);
                         Image newImage = downloadAndCacheImage(url, cachedFile, width, height);
                         return newImage != null ? newImage : loadImage(url, width, height);
                     }
 
+                    diskIndex.recordAccess(cachedFile);
                     return cachedImage;
                 } catch (Exception e) {
                     System.err.println("Error loading cached image, re-downloading: " + e.getMessage());
-                    Files.deleteIfExists(cachedFile);
+                    diskIndex.delete(cachedFile);
                     Image newImage = downloadAndCacheImage(url, cachedFile, width, height);
                     return newImage != null ? newImage : loadImage(url, width, height);
                 }
@@ -273,13 +661,13 @@ public class ImageCache {
         try {
             System.out.println("Loading and caching image: " + url);
 
-            Image image = new Image(url, 0, 0, DEFAULT_PRESERVE_RATIO, DEFAULT_SMOOTH,
+            Image image = new Image(url, width, height, DEFAULT_PRESERVE_RATIO, DEFAULT_SMOOTH,
                     DEFAULT_BACKGROUND_LOADING);
+            String cacheKey = cacheKey(url, (int) width, (int) height);
 
             image.exceptionProperty().addListener((obs, oldEx, newEx) -> {
                 if (newEx != null) {
                     System.err.println("Image loading exception for " + url + ": " + newEx.getMessage());
-                    String cacheKey = url;
                     memoryCache.remove(cacheKey);
                 }
             });
@@ -287,7 +675,6 @@ public class ImageCache {
             image.errorProperty().addListener((obs, wasError, isError) -> {
                 if (isError) {
                     System.err.println("Image error detected for " + url + " - likely corrupted JPEG data");
-                    String cacheKey = url;
                     memoryCache.remove(cacheKey);
                 }
             });
@@ -300,6 +687,323 @@ public class ImageCache {
         }
     }
 
+    /**
+     * The thumbnail saved for this size, or null when there is none (or the
+     * local file it was made from has changed since)
+     */
+    private Image loadThumbnail(String url, int width, int height) {
+        if (!diskCacheEnabled || (width <= 0 && height <= 0)) {
+            return null;
+        }
+        Path file = existingThumbnail(url, width, height);
+        try {
+            if (file == null || Files.getLastModifiedTime(file).toMillis() < sourceModified(url)) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        diskIndex.recordAccess(file);
+
+        Image thumbnail = new Image(file.toUri().toString(), 0, 0, DEFAULT_PRESERVE_RATIO, DEFAULT_SMOOTH,
+                DEFAULT_BACKGROUND_LOADING);
+        String cacheKey = cacheKey(url, width, height);
+        thumbnail.errorProperty().addListener((obs, wasError, isError) -> {
+            if (isError) {
+                System.err.println("Corrupted thumbnail, removing: " + file.getFileName());
+                memoryCache.remove(cacheKey);
+                try {
+                    diskIndex.delete(file);
+                } catch (IOException e) {
+                    System.err.println("Error removing thumbnail: " + e.getMessage());
+                }
+            }
+        });
+        return thumbnail;
+    }
+
+    /**
+     * Write a thumbnail of a sized image once it has finished loading,
+     * unless there already is one
+     */
+    private void saveThumbnailWhenLoaded(String url, int width, int height, Image image) {
+        if (!diskCacheEnabled || (width <= 0 && height <= 0) || isPlaceholder(image)) {
+            return;
+        }
+        Path file = thumbnailFile(url, width, height);
+        if (existingThumbnail(url, width, height) != null || !pendingThumbnails.add(file)) {
+            return;
+        }
+        if (image.getProgress() >= 1) {
+            submitThumbnail(file, image);
+            return;
+        }
+        image.progressProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal.doubleValue() >= 1) {
+                submitThumbnail(file, image);
+            }
+        });
+        image.errorProperty().addListener((obs, wasError, isError) -> pendingThumbnails.remove(file));
+        if (image.getProgress() >= 1) {
+            submitThumbnail(file, image); // finished before the listener was added
+        }
+    }
+
+    private void submitThumbnail(Path file, Image image) {
+        thumbnailWriter.execute(() -> {
+            try {
+                if (!image.isError() && !Files.exists(file) && !Files.exists(withAlpha(file))) {
+                    writeThumbnail(file, image);
+                }
+            } finally {
+                pendingThumbnails.remove(file);
+            }
+        });
+    }
+
+    private void writeThumbnail(Path file, Image image) {
+        PixelReader reader = image.getPixelReader();
+        int width = (int) image.getWidth();
+        int height = (int) image.getHeight();
+        if (reader == null || width <= 0 || height <= 0) {
+            return;
+        }
+        int[] pixels = new int[width * height];
+        reader.getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        // JPEG has no alpha channel: transparent covers would get a black background
+        boolean alpha = hasTransparency(pixels);
+        String format = alpha ? "png" : "jpg";
+        if (alpha) {
+            file = withAlpha(file);
+        }
+        BufferedImage buffered = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        buffered.setRGB(0, 0, width, height, pixels, 0, width);
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (!ImageIO.write(buffered, format, temp.toFile())) {
+                throw new IOException("No " + format + " writer available");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            diskIndex.recordWrite(file, DiskCacheIndex.Kind.THUMBNAIL);
+        } catch (IOException e) {
+            System.err.println("Failed to write thumbnail " + file.getFileName() + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException cleanupError) {
+                System.err.println("Error cleaning up thumbnail file: " + cleanupError.getMessage());
+            }
+        }
+    }
+
+    private static boolean hasTransparency(int[] argbPixels) {
+        for (int pixel : argbPixels) {
+            if (pixel >>> 24 != 0xff) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The thumbnail file for this size in either format, or null if there
+     * is none
+     */
+    private Path existingThumbnail(String url, int width, int height) {
+        Path file = thumbnailFile(url, width, height);
+        if (Files.isRegularFile(file)) {
+            return file;
+        }
+        Path png = withAlpha(file);
+        return Files.isRegularFile(png) ? png : null;
+    }
+
+    /**
+     * Where the PNG thumbnail of an image with transparency goes instead of
+     * the JPEG one
+     */
+    private static Path withAlpha(Path jpegFile) {
+        String name = jpegFile.getFileName().toString();
+        return jpegFile.resolveSibling(name.substring(0, name.length() - ".jpg".length()) + ".png");
+    }
+
+    private Path thumbnailFile(String url, int width, int height) {
+        return diskIndex.resolve(thumbnailDir, hash(url) + "_" + width + "x" + height + ".jpg");
+    }
+
+    private Path originalFile(String url) {
+        return diskIndex.resolve(cacheDir, getCacheFileName(url));
+    }
+
+    /**
+     * Last modification of a local image (or the archive holding it), 0 for
+     * remote images
+     */
+    private static long sourceModified(String url) {
+        try {
+            if (ArchiveReader.isArchiveUri(url)) {
+                return Files.getLastModifiedTime(ArchiveReader.archivePath(url)).toMillis();
+            }
+            if (url.startsWith("file:")) {
+                return Files.getLastModifiedTime(Paths.get(URI.create(url))).toMillis();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Missing source: the thumbnail is all there is
+        }
+        return 0;
+    }
+
+    private static boolean isPlaceholder(Image image) {
+        return image.getUrl() != null && image.getUrl().startsWith(PLACEHOLDER_PREFIX);
+    }
+
+    /**
+     * A smaller variant scaled down from a larger decode of the same URL that
+     * is already in memory, or null when there is none. When the full-size
+     * image is itself no bigger than asked for, that image is returned.
+     *
+     * On the FX thread the scaling is done in the background instead (see
+     * scaleInBackground) and the larger variant is returned, for its view to
+     * fit until then.
+     */
+    private Image scaleFromCachedVariant(String url, int width, int height) {
+        if (width <= 0 && height <= 0) {
+            return null;
+        }
+        Image source = null;
+        int targetWidth = 0;
+        int targetHeight = 0;
+        for (Map.Entry<String, Image> variant : memoryCache.getGroup(url).entrySet()) {
+            Image candidate = variant.getValue();
+            if (candidate.getProgress() < 1 || candidate.isError() || candidate.getWidth() <= 0) {
+                continue;
+            }
+            double scale = Math.min(width > 0 ? width / candidate.getWidth() : Double.MAX_VALUE,
+                    height > 0 ? height / candidate.getHeight() : Double.MAX_VALUE);
+            if (scale >= 1) {
+                if (variant.getKey().equals(url)) {
+                    return candidate;
+                }
+                continue; // a variant smaller than asked for
+            }
+            if (source == null || candidate.getWidth() < source.getWidth()) {
+                source = candidate;
+                targetWidth = Math.max(1, (int) Math.round(candidate.getWidth() * scale));
+                targetHeight = Math.max(1, (int) Math.round(candidate.getHeight() * scale));
+            }
+        }
+        if (source == null) {
+            return null;
+        }
+        if (Platform.isFxApplicationThread()) {
+            scaleInBackground(url, width, height, source, targetWidth, targetHeight);
+            return source;
+        }
+        return downscale(source, targetWidth, targetHeight);
+    }
+
+    /**
+     * Scale a variant down on the thumbnail thread and cache it for the next
+     * request of this size, so a large cover does not stall rendering
+     */
+    private void scaleInBackground(String url, int width, int height, Image source, int targetWidth,
+            int targetHeight) {
+        String cacheKey = cacheKey(url, width, height);
+        if (!pendingScales.add(cacheKey)) {
+            return;
+        }
+        thumbnailWriter.execute(() -> {
+            try {
+                Image scaled = downscale(source, targetWidth, targetHeight);
+                if (scaled != null) {
+                    saveThumbnailWhenLoaded(url, width, height, scaled);
+                    memoryCache.putIfAbsent(cacheKey, url, scaled);
+                }
+            } finally {
+                pendingScales.remove(cacheKey);
+            }
+        });
+    }
+
+    /**
+     * Area-average downscale (each target pixel is the mean of the source
+     * pixels it covers)
+     */
+    private static Image downscale(Image source, int width, int height) {
+        PixelReader reader = source.getPixelReader();
+        if (reader == null) {
+            return null;
+        }
+        int sourceWidth = (int) source.getWidth();
+        int sourceHeight = (int) source.getHeight();
+        int[] pixels = new int[sourceWidth * sourceHeight];
+        reader.getPixels(0, 0, sourceWidth, sourceHeight, PixelFormat.getIntArgbInstance(), pixels, 0, sourceWidth);
+
+        int[] scaled = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            int top = y * sourceHeight / height;
+            int bottom = Math.max(top + 1, (y + 1) * sourceHeight / height);
+            for (int x = 0; x < width; x++) {
+                int left = x * sourceWidth / width;
+                int right = Math.max(left + 1, (x + 1) * sourceWidth / width);
+                long a = 0;
+                long r = 0;
+                long g = 0;
+                long b = 0;
+                for (int sy = top; sy < bottom; sy++) {
+                    int row = sy * sourceWidth;
+                    for (int sx = left; sx < right; sx++) {
+                        int pixel = pixels[row + sx];
+                        a += pixel >>> 24;
+                        r += (pixel >> 16) & 0xff;
+                        g += (pixel >> 8) & 0xff;
+                        b += pixel & 0xff;
+                    }
+                }
+                int count = (bottom - top) * (right - left);
+                scaled[y * width + x] = (int) (a / count) << 24 | (int) (r / count) << 16
+                        | (int) (g / count) << 8 | (int) (b / count);
+            }
+        }
+
+        WritableImage image = new WritableImage(width, height);
+        image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), scaled, 0, width);
+        return image;
+    }
+
+    /**
+     * Decode size for a requested size: scaled for HiDPI screens and rounded
+     * up to SIZE_BUCKET; 0 stays 0 (no limit)
+     */
+    private int bucket(double size) {
+        if (size <= 0) {
+            return 0;
+        }
+        return (int) Math.ceil(size * getRenderScale() / SIZE_BUCKET) * SIZE_BUCKET;
+    }
+
+    /**
+     * Output scale of the primary screen. Screen may only be queried on the
+     * FX thread; until it has been, other threads decode at scale 1.
+     */
+    private double getRenderScale() {
+        double scale = renderScale;
+        if (scale > 0) {
+            return scale;
+        }
+        if (!Platform.isFxApplicationThread()) {
+            return 1;
+        }
+        scale = Math.max(1, Screen.getPrimary().getOutputScaleX());
+        renderScale = scale;
+        return scale;
+    }
+
+    private static String cacheKey(String url, int width, int height) {
+        return width <= 0 && height <= 0 ? url : url + "#" + width + "x" + height;
+    }
+
     /**
      * Generates a safe, unique filename for caching using MD5 hash.
      * 
@@ -313,6 +1017,10 @@ public class ImageCache {
      * Cached as: "5d41402abc4b2a76b9719d911017c592.jpg"
      */
     private String getCacheFileName(String url) {
+        return hash(url) + ".jpg";
+    }
+
+    private static String hash(String url) {
         try {
             MessageDigest md = MessageDigest.getInstance("MD5");
             byte[] hash = md.digest(url.getBytes());
@@ -320,25 +1028,13 @@ public class ImageCache {
             for (byte b : hash) {
                 sb.append(String.format("%02x", b));
             }
-            return sb.toString() + ".jpg";
+            return sb.toString();
         } catch (NoSuchAlgorithmException e) {
-            return String.valueOf(url.hashCode()) + ".jpg";
+            return String.valueOf(url.hashCode());
         }
     }
 
     private void clearDiskCache() {
-        try {
-            Files.walk(cacheDir)
-                    .filter(Files::isRegularFile)
-                    .forEach(path -> {
-                        try {
-                            Files.delete(path);
-                        } catch (IOException e) {
-                            System.err.println("Error deleting cached file: " + e.getMessage());
-                        }
-                    });
-        } catch (IOException e) {
-            System.err.println("Error clearing disk cache: " + e.getMessage());
-        }
+        diskIndex.clear();
     }
 }
@@ -0,0 +1,291 @@
+package com.mangareader.prototype.util;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javafx.scene.image.Image;
+
+/**
+ * ImageMemoryCache is ImageCache's memory tier: decoded images, bounded by
+ * the memory they take rather than by their number.
+ *
+ * - Weight: width × height × 4 bytes (what JavaFX keeps per decoded pixel).
+ *   Images still loading in the background weigh nothing until they finish.
+ * - Eviction: least recently used first, once the total exceeds the budget
+ * - Pinning: pinned images (the ones on screen, see
+ *   ImageCache.pinWhileDisplayed) are skipped by eviction, so the total can
+ *   only exceed the budget by what is pinned
+ * - Groups: entries can name a group (the decoded sizes of one URL), so all
+ *   variants of an image can be looked up or removed together
+ *
+ * All methods are synchronized; none of them does I/O or decoding.
+ */
+public class ImageMemoryCache {
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    // Same entries by group, in insertion order: reading them here does not reorder the LRU
+    private final Map<String, Map<String, Entry>> groups = new HashMap<>();
+    private final Map<Image, Integer> pinCounts = new IdentityHashMap<>();
+    private long budgetBytes;
+    private long totalBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ImageMemoryCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    public synchronized Image get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.image;
+    }
+
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    public Image putIfAbsent(String key, Image image) {
+        return putIfAbsent(key, key, image);
+    }
+
+    /**
+     * Add an image unless the key is already cached
+     *
+     * @param group the group the entry belongs to
+     * @return the image now cached under the key (the earlier one if there
+     *         was one)
+     */
+    public Image putIfAbsent(String key, String group, Image image) {
+        synchronized (this) {
+            Entry existing = entries.get(key);
+            if (existing != null) {
+                return existing.image;
+            }
+            Entry entry = new Entry(image, group, weigh(image));
+            entries.put(key, entry);
+            groups.computeIfAbsent(group, g -> new LinkedHashMap<>()).put(key, entry);
+            totalBytes += entry.weight;
+            evict();
+        }
+        if (image.getProgress() < 1) {
+            // Background loading: the size is only known once it is done
+            image.progressProperty().addListener((obs, oldVal, newVal) -> {
+                if (newVal.doubleValue() >= 1) {
+                    reweigh(key, group, image);
+                }
+            });
+            if (image.getProgress() >= 1) {
+                reweigh(key, group, image);
+            }
+        }
+        return image;
+    }
+
+    public synchronized void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            totalBytes -= entry.weight;
+            forget(key, entry);
+        }
+    }
+
+    /**
+     * The images of a group by key, without counting as a use
+     */
+    public synchronized Map<String, Image> getGroup(String group) {
+        Map<String, Image> images = new LinkedHashMap<>();
+        for (Map.Entry<String, Entry> entry : groups.getOrDefault(group, Map.of()).entrySet()) {
+            images.put(entry.getKey(), entry.getValue().image);
+        }
+        return images;
+    }
+
+    public synchronized void removeGroup(String group) {
+        Map<String, Entry> members = groups.remove(group);
+        if (members == null) {
+            return;
+        }
+        for (String key : members.keySet()) {
+            totalBytes -= entries.remove(key).weight;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        groups.clear();
+        totalBytes = 0;
+    }
+
+    /**
+     * Keep an image from being evicted until it is unpinned as often as it
+     * was pinned. Works for images that are not (yet) cached as well.
+     */
+    public synchronized void pin(Image image) {
+        pinCounts.merge(image, 1, Integer::sum);
+    }
+
+    public synchronized void unpin(Image image) {
+        Integer count = pinCounts.get(image);
+        if (count == null) {
+            return;
+        }
+        if (count <= 1) {
+            pinCounts.remove(image);
+            evict();
+        } else {
+            pinCounts.put(image, count - 1);
+        }
+    }
+
+    public synchronized long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    /**
+     * Change the budget; evicts right away when it shrinks
+     */
+    public synchronized void setBudgetBytes(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        evict();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized Stats getStats() {
+        long pinnedBytes = 0;
+        int pinned = 0;
+        for (Entry entry : entries.values()) {
+            if (pinCounts.containsKey(entry.image)) {
+                pinned++;
+                pinnedBytes += entry.weight;
+            }
+        }
+        return new Stats(entries.size(), totalBytes, budgetBytes, pinned, pinnedBytes, hits, misses, evictions);
+    }
+
+    private synchronized void reweigh(String key, String group, Image image) {
+        // Finishing a background load is not a use
+        Entry entry = groups.getOrDefault(group, Map.of()).get(key);
+        if (entry == null || entry.image != image) {
+            return;
+        }
+        long weight = weigh(image);
+        totalBytes += weight - entry.weight;
+        entry.weight = weight;
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > budgetBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> next = eldest.next();
+            Entry entry = next.getValue();
+            if (pinCounts.containsKey(entry.image)) {
+                continue;
+            }
+            eldest.remove();
+            totalBytes -= entry.weight;
+            evictions++;
+            forget(next.getKey(), entry);
+        }
+    }
+
+    private void forget(String key, Entry entry) {
+        Map<String, Entry> members = groups.get(entry.group);
+        if (members != null && members.remove(key, entry) && members.isEmpty()) {
+            groups.remove(entry.group);
+        }
+    }
+
+    private static long weigh(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * BYTES_PER_PIXEL;
+    }
+
+    private static final class Entry {
+        final Image image;
+        final String group;
+        long weight;
+
+        Entry(Image image, String group, long weight) {
+            this.image = image;
+            this.group = group;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Memory tier counters
+     */
+    public static class Stats {
+        private final int images;
+        private final long bytes;
+        private final long budgetBytes;
+        private final int pinnedImages;
+        private final long pinnedBytes;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        public Stats(int images, long bytes, long budgetBytes, int pinnedImages, long pinnedBytes, long hits,
+                long misses, long evictions) {
+            this.images = images;
+            this.bytes = bytes;
+            this.budgetBytes = budgetBytes;
+            this.pinnedImages = pinnedImages;
+            this.pinnedBytes = pinnedBytes;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        public int getImages() {
+            return images;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getBudgetBytes() {
+            return budgetBytes;
+        }
+
+        public int getPinnedImages() {
+            return pinnedImages;
+        }
+
+        public long getPinnedBytes() {
+            return pinnedBytes;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d images, %.1f of %.0f MB (%d on screen), %d evicted", images,
+                    bytes / (1024.0 * 1024.0), budgetBytes / (1024.0 * 1024.0), pinnedImages, evictions);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.mangareader.prototype.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.prefs.Preferences;
+
+/**
+ * ImageQualityManager holds the reader's page quality setting and, for AUTO,
+ * decides between full and data-saver pages from measured download speed.
+ *
+ * - FULL: original page images
+ * - DATA_SAVER: MangaDex's compressed pages (much smaller)
+ * - AUTO: FULL while the link keeps up, DATA_SAVER once it is slow
+ *
+ * Page downloads report their size and timing through recordDownload(); an
+ * exponentially weighted average of throughput and latency smooths out single
+ * slow pages. Two thresholds (SLOW_/FAST_THROUGHPUT) keep AUTO from flapping
+ * between the two modes.
+ */
+public class ImageQualityManager {
+    private static final String QUALITY_PREFERENCE_KEY = "reader.imageQuality";
+    private static final double SMOOTHING = 0.3;
+    private static final int MIN_SAMPLES = 3;
+    // Bodies smaller than this are dominated by latency, not throughput
+    private static final long MIN_THROUGHPUT_SAMPLE_BYTES = 32 * 1024;
+    private static final double SLOW_THROUGHPUT_BYTES_PER_SECOND = 150 * 1024;
+    private static final double FAST_THROUGHPUT_BYTES_PER_SECOND = 400 * 1024;
+    private static final double SLOW_LATENCY_MILLIS = 1500;
+
+    private static final ImageQualityManager instance = new ImageQualityManager();
+
+    private final Preferences preferences;
+    private volatile ImageQuality quality;
+    private double throughputBytesPerSecond;
+    private double latencyMillis;
+    private int throughputSamples;
+    private int latencySamples;
+    private boolean slowLink;
+
+    public enum ImageQuality {
+        FULL("Full quality"),
+        DATA_SAVER("Data saver"),
+        AUTO("Auto");
+
+        private final String displayName;
+
+        ImageQuality(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private ImageQualityManager() {
+        preferences = Preferences.userNodeForPackage(ImageQualityManager.class);
+        ImageQuality saved;
+        try {
+            saved = ImageQuality.valueOf(preferences.get(QUALITY_PREFERENCE_KEY, ImageQuality.AUTO.name()));
+        } catch (IllegalArgumentException e) {
+            saved = ImageQuality.AUTO;
+        }
+        quality = saved;
+    }
+
+    public static ImageQualityManager getInstance() {
+        return instance;
+    }
+
+    /**
+     * The setting as chosen by the user (may be AUTO)
+     */
+    public ImageQuality getQuality() {
+        return quality;
+    }
+
+    public void setQuality(ImageQuality quality) {
+        this.quality = quality;
+        preferences.put(QUALITY_PREFERENCE_KEY, quality.name());
+    }
+
+    /**
+     * FULL or DATA_SAVER: what pages should be requested in right now
+     */
+    public ImageQuality getEffectiveQuality() {
+        ImageQuality chosen = quality;
+        if (chosen != ImageQuality.AUTO) {
+            return chosen;
+        }
+        synchronized (this) {
+            return slowLink ? ImageQuality.DATA_SAVER : ImageQuality.FULL;
+        }
+    }
+
+    /**
+     * Report one finished image download
+     *
+     * @param bytes        body size
+     * @param latencyNanos time until the response headers arrived
+     * @param totalNanos   time until the whole body was read
+     */
+    public synchronized void recordDownload(long bytes, long latencyNanos, long totalNanos) {
+        latencyMillis = average(latencyMillis, TimeUnit.NANOSECONDS.toMicros(latencyNanos) / 1000.0,
+                latencySamples++);
+
+        long transferNanos = totalNanos - latencyNanos;
+        if (bytes >= MIN_THROUGHPUT_SAMPLE_BYTES && transferNanos > 0) {
+            double sample = bytes * 1_000_000_000.0 / transferNanos;
+            throughputBytesPerSecond = average(throughputBytesPerSecond, sample, throughputSamples++);
+        }
+
+        boolean wasSlow = slowLink;
+        if (throughputSamples >= MIN_SAMPLES && latencySamples >= MIN_SAMPLES) {
+            if (throughputBytesPerSecond < SLOW_THROUGHPUT_BYTES_PER_SECOND || latencyMillis > SLOW_LATENCY_MILLIS) {
+                slowLink = true;
+            } else if (throughputBytesPerSecond > FAST_THROUGHPUT_BYTES_PER_SECOND) {
+                slowLink = false;
+            }
+        }
+        if (wasSlow != slowLink && quality == ImageQuality.AUTO) {
+            System.out.printf("Link is %s (%.0f KB/s, %.0f ms), switching to %s pages%n",
+                    slowLink ? "slow" : "fast again", throughputBytesPerSecond / 1024, latencyMillis,
+                    slowLink ? "data-saver" : "full quality");
+        }
+    }
+
+    public synchronized double getThroughputBytesPerSecond() {
+        return throughputBytesPerSecond;
+    }
+
+    public synchronized double getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    private static double average(double current, double sample, int previousSamples) {
+        return previousSamples == 0 ? sample : current + SMOOTHING * (sample - current);
+    }
+}
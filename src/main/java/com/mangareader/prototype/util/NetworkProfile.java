@@ -0,0 +1,78 @@
+package com.mangareader.prototype.util;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated network conditions for data served from local files (fixtures):
+ * a fixed latency per response plus a transfer time from a bandwidth limit.
+ * Lets benchmarks model a real link without leaving the machine.
+ */
+public final class NetworkProfile {
+    public static final String LATENCY_PROPERTY = "mangareader.network.latencyMs";
+    public static final String BANDWIDTH_PROPERTY = "mangareader.network.bandwidthKBps";
+
+    /**
+     * No added latency, no bandwidth limit
+     */
+    public static final NetworkProfile UNLIMITED = new NetworkProfile(Duration.ZERO, 0);
+
+    private final Duration latency;
+    private final long bytesPerSecond;
+
+    /**
+     * @param latency        added to every response
+     * @param bytesPerSecond transfer rate; 0 or less means unlimited
+     */
+    public NetworkProfile(Duration latency, long bytesPerSecond) {
+        this.latency = latency;
+        this.bytesPerSecond = Math.max(0, bytesPerSecond);
+    }
+
+    /**
+     * -Dmangareader.network.latencyMs and -Dmangareader.network.bandwidthKBps
+     */
+    public static NetworkProfile fromSystemProperties() {
+        long latencyMillis = Long.getLong(LATENCY_PROPERTY, 0);
+        long kilobytesPerSecond = Long.getLong(BANDWIDTH_PROPERTY, 0);
+        if (latencyMillis <= 0 && kilobytesPerSecond <= 0) {
+            return UNLIMITED;
+        }
+        return new NetworkProfile(Duration.ofMillis(Math.max(0, latencyMillis)), kilobytesPerSecond * 1024);
+    }
+
+    public Duration getLatency() {
+        return latency;
+    }
+
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * How long a response of the given size would take on this link
+     */
+    public long delayNanos(long bytes) {
+        long transferNanos = bytesPerSecond > 0 ? bytes * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond : 0;
+        return latency.toNanos() + transferNanos;
+    }
+
+    /**
+     * Block for as long as a response of the given size would take
+     */
+    public void simulate(long bytes) throws InterruptedException {
+        long delayNanos = delayNanos(bytes);
+        if (delayNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(delayNanos);
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (this == UNLIMITED) {
+            return "unlimited";
+        }
+        return String.format("%d ms latency, %s", latency.toMillis(),
+                bytesPerSecond > 0 ? (bytesPerSecond / 1024) + " KB/s" : "unlimited bandwidth");
+    }
+}
@@ -0,0 +1,343 @@
+package com.mangareader.prototype.util;
+
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RateLimiter is the process-wide token bucket that every outgoing request goes
+ * through (MangaSource calls and ImageCache downloads alike).
+ *
+ * Each host gets its own bucket, configured per host:
+ * - api.mangadex.org: 5 requests/second (MangaDex global limit)
+ * - uploads.mangadex.org: covers
+ * - *.mangadex.network: at-home page servers (suffix match)
+ * - anything else: DEFAULT_PERMITS_PER_SECOND
+ *
+ * How it works (GCRA, the "virtual scheduling" form of a token bucket):
+ * - Each bucket keeps a single "theoretical arrival time" in an AtomicLong
+ * - A caller reserves the next slot with one compareAndSet, then sleeps
+ * until its slot comes up; no locks are held while waiting
+ * - Up to "burst" requests can go out back to back before pacing kicks in
+ *
+ * When a server says to back off (429 with Retry-After, or MangaDex's
+ * X-RateLimit-Remaining: 0 with X-RateLimit-Retry-After), onResponse() pushes
+ * the host's bucket forward so no request goes out before that time.
+ *
+ * Metrics (permits issued, delayed permits, total/max wait, pauses) are kept
+ * per host and exposed through getStats().
+ */
+public class RateLimiter {
+    private static final RateLimiter instance = new RateLimiter();
+
+    private static final double DEFAULT_PERMITS_PER_SECOND = 10.0;
+    private static final int DEFAULT_BURST = 10;
+
+    private final Map<String, BucketConfig> hostConfigs = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private RateLimiter() {
+        configureHost("api.mangadex.org", 5.0, 5);
+        configureHost("uploads.mangadex.org", 10.0, 10);
+        configureHost(".mangadex.network", 20.0, 20);
+    }
+
+    public static RateLimiter getInstance() {
+        return instance;
+    }
+
+    /**
+     * Configure the rate for a host. A host starting with "." matches every
+     * subdomain (e.g. ".mangadex.network" covers all at-home nodes).
+     * Existing buckets for matching hosts are reset.
+     */
+    public void configureHost(String host, double permitsPerSecond, int burst) {
+        if (host == null || host.isEmpty() || permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Invalid rate limit for host: " + host);
+        }
+        String key = host.toLowerCase();
+        hostConfigs.put(key, new BucketConfig(permitsPerSecond, Math.max(1, burst)));
+        buckets.keySet().removeIf(existing -> matches(key, existing));
+    }
+
+    /**
+     * Block until a permit for the URL's host is available.
+     *
+     * @return the time spent waiting, in nanoseconds
+     */
+    public long acquire(String url) throws InterruptedException {
+        long waitNanos = reserve(url);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Non-blocking variant: the returned future completes once the permit's
+     * slot has been reached.
+     */
+    public CompletableFuture<Void> acquireAsync(String url) {
+        long waitNanos = reserve(url);
+        if (waitNanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Reserve a permit without waiting for it.
+     *
+     * @return how long the caller must wait before sending, in nanoseconds
+     */
+    public long reserve(String url) {
+        return bucketFor(hostOf(url)).reserve();
+    }
+
+    /**
+     * Feed a response's rate limit headers back into the limiter. If the
+     * server asked to back off, the host is paused for that long.
+     *
+     * @return how long the server asked to wait, in nanoseconds (0 if it did
+     *         not say)
+     */
+    public long onResponse(String url, int statusCode, HttpHeaders headers) {
+        boolean exhausted = headers.firstValue("X-RateLimit-Remaining")
+                .map(String::trim)
+                .filter("0"::equals)
+                .isPresent();
+        if (statusCode != 429 && !exhausted) {
+            return 0;
+        }
+        long delayNanos = retryAfterNanos(headers);
+        if (delayNanos > 0) {
+            pause(url, delayNanos);
+        }
+        return delayNanos;
+    }
+
+    /**
+     * Hold back every request to the URL's host for the given time, on top of
+     * the normal pacing.
+     */
+    public void pause(String url, long delayNanos) {
+        String host = hostOf(url);
+        bucketFor(host).pauseUntil(System.nanoTime() + delayNanos);
+        System.err.printf("Rate limited by %s, pausing for %.1f s%n", host, delayNanos / 1_000_000_000.0);
+    }
+
+    public Stats getStats(String host) {
+        Bucket bucket = buckets.get(host.toLowerCase());
+        return bucket != null ? bucket.snapshot(host.toLowerCase()) : new Stats(host.toLowerCase(), 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Snapshot of the metrics for every host seen so far, sorted by host
+     */
+    public Map<String, Stats> getAllStats() {
+        Map<String, Stats> stats = new TreeMap<>();
+        buckets.forEach((host, bucket) -> stats.put(host, bucket.snapshot(host)));
+        return stats;
+    }
+
+    private Bucket bucketFor(String host) {
+        return buckets.computeIfAbsent(host, h -> new Bucket(configFor(h)));
+    }
+
+    private BucketConfig configFor(String host) {
+        BucketConfig exact = hostConfigs.get(host);
+        if (exact != null) {
+            return exact;
+        }
+        for (Map.Entry<String, BucketConfig> entry : hostConfigs.entrySet()) {
+            if (matches(entry.getKey(), host)) {
+                return entry.getValue();
+            }
+        }
+        return new BucketConfig(DEFAULT_PERMITS_PER_SECOND, DEFAULT_BURST);
+    }
+
+    private static boolean matches(String configKey, String host) {
+        if (configKey.startsWith(".")) {
+            return host.endsWith(configKey) || host.equals(configKey.substring(1));
+        }
+        return host.equals(configKey);
+    }
+
+    /**
+     * Retry-After is either delay-seconds or an HTTP date; MangaDex's
+     * X-RateLimit-Retry-After is a Unix timestamp in seconds. The later of the
+     * two wins.
+     */
+    private static long retryAfterNanos(HttpHeaders headers) {
+        long nowMillis = System.currentTimeMillis();
+        long delayMillis = 0;
+
+        Optional<String> retryAfter = headers.firstValue("Retry-After").map(String::trim);
+        if (retryAfter.isPresent()) {
+            try {
+                delayMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.get()));
+            } catch (NumberFormatException e) {
+                try {
+                    delayMillis = ZonedDateTime.parse(retryAfter.get(), DateTimeFormatter.RFC_1123_DATE_TIME)
+                            .toInstant().toEpochMilli() - nowMillis;
+                } catch (Exception ignored) {
+                    System.err.println("Could not parse Retry-After: " + retryAfter.get());
+                }
+            }
+        }
+
+        Optional<String> resetAt = headers.firstValue("X-RateLimit-Retry-After").map(String::trim);
+        if (resetAt.isPresent()) {
+            try {
+                long resetMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(resetAt.get()));
+                delayMillis = Math.max(delayMillis, resetMillis - nowMillis);
+            } catch (NumberFormatException e) {
+                System.err.println("Could not parse X-RateLimit-Retry-After: " + resetAt.get());
+            }
+        }
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            if (host != null) {
+                return host.toLowerCase();
+            }
+        } catch (Exception e) {
+            System.err.println("Rate limiter could not parse URL: " + url);
+        }
+        return "unknown";
+    }
+
+    private static final class BucketConfig {
+        private final long intervalNanos;
+        private final long toleranceNanos;
+
+        private BucketConfig(double permitsPerSecond, int burst) {
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+            this.toleranceNanos = intervalNanos * (burst - 1);
+        }
+    }
+
+    private static final class Bucket {
+        private final BucketConfig config;
+        private final AtomicLong theoreticalArrival;
+        private final LongAdder permitsIssued = new LongAdder();
+        private final LongAdder delayedPermits = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final LongAdder pauses = new LongAdder();
+
+        private Bucket(BucketConfig config) {
+            this.config = config;
+            this.theoreticalArrival = new AtomicLong(System.nanoTime());
+        }
+
+        private long reserve() {
+            while (true) {
+                long now = System.nanoTime();
+                long arrival = theoreticalArrival.get();
+                long slot = Math.max(arrival, now);
+                if (theoreticalArrival.compareAndSet(arrival, slot + config.intervalNanos)) {
+                    long waitNanos = Math.max(0, slot - config.toleranceNanos - now);
+                    record(waitNanos);
+                    return waitNanos;
+                }
+            }
+        }
+
+        /**
+         * Move the schedule so the first permit after this is not granted
+         * before untilNanos (burst tolerance included)
+         */
+        private void pauseUntil(long untilNanos) {
+            pauses.increment();
+            theoreticalArrival.accumulateAndGet(untilNanos + config.toleranceNanos, Math::max);
+        }
+
+        private void record(long waitNanos) {
+            permitsIssued.increment();
+            if (waitNanos > 0) {
+                delayedPermits.increment();
+                totalWaitNanos.add(waitNanos);
+                maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+            }
+        }
+
+        private Stats snapshot(String host) {
+            return new Stats(host, permitsIssued.sum(), delayedPermits.sum(), totalWaitNanos.sum(),
+                    maxWaitNanos.get(), pauses.sum());
+        }
+    }
+
+    /**
+     * Rate limiter metrics for a single host
+     */
+    public static class Stats {
+        private final String host;
+        private final long permitsIssued;
+        private final long delayedPermits;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+        private final long pauses;
+
+        public Stats(String host, long permitsIssued, long delayedPermits, long totalWaitNanos, long maxWaitNanos,
+                long pauses) {
+            this.host = host;
+            this.permitsIssued = permitsIssued;
+            this.delayedPermits = delayedPermits;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.pauses = pauses;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public long getPermitsIssued() {
+            return permitsIssued;
+        }
+
+        public long getDelayedPermits() {
+            return delayedPermits;
+        }
+
+        public double getTotalWaitMillis() {
+            return totalWaitNanos / 1_000_000.0;
+        }
+
+        public double getMaxWaitMillis() {
+            return maxWaitNanos / 1_000_000.0;
+        }
+
+        public double getAverageWaitMillis() {
+            return permitsIssued > 0 ? getTotalWaitMillis() / permitsIssued : 0.0;
+        }
+
+        /**
+         * How many times the server told us to back off
+         */
+        public long getPauses() {
+            return pauses;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d permits (%d delayed), avg wait %.1f ms, max wait %.1f ms, %d pauses",
+                    host, permitsIssued, delayedPermits, getAverageWaitMillis(), getMaxWaitMillis(), pauses);
+        }
+    }
+}
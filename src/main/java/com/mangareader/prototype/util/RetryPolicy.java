@@ -0,0 +1,51 @@
+package com.mangareader.prototype.util;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RetryPolicy decides whether and when a transient failure (connection
+ * error, timeout, 429, 5xx; see HttpStatusException.isRetryable) is tried
+ * again, so every caller talking to MangaDex backs off the same way:
+ *
+ * - At most MAX_RETRIES retries after the first attempt
+ * - Exponential backoff with equal jitter between them
+ * - A Retry-After the server sent (already applied to the host by
+ *   RateLimiter.onResponse) replaces the backoff; one longer than
+ *   MAX_RETRY_WAIT is not waited out at all
+ */
+public final class RetryPolicy {
+    public static final int MAX_RETRIES = 3;
+    private static final Duration INITIAL_BACKOFF = Duration.ofMillis(500);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(8);
+    private static final Duration MAX_RETRY_WAIT = Duration.ofSeconds(30);
+
+    private RetryPolicy() {
+    }
+
+    /**
+     * Whether to try again after the given attempt (0 for the first) failed
+     *
+     * @param retryAfterNanos what RateLimiter.onResponse returned, 0 if
+     *                        there was no response
+     */
+    public static boolean shouldRetry(int attempt, long retryAfterNanos) {
+        return attempt < MAX_RETRIES && retryAfterNanos <= MAX_RETRY_WAIT.toNanos();
+    }
+
+    /**
+     * How long to wait before the next attempt. 0 when the server sent a
+     * Retry-After: the rate limiter already holds the host back for it.
+     */
+    public static long delayNanos(int attempt, long retryAfterNanos) {
+        if (retryAfterNanos > 0) {
+            return 0;
+        }
+        // "Equal jitter": half of the exponential step is fixed, the other
+        // half random, so clients that failed together do not retry together
+        long stepMillis = Math.min(MAX_BACKOFF.toMillis(), INITIAL_BACKOFF.toMillis() << attempt);
+        long jitterMillis = ThreadLocalRandom.current().nextLong(stepMillis / 2 + 1);
+        return TimeUnit.MILLISECONDS.toNanos(stepMillis / 2 + jitterMillis);
+    }
+}
@@ -0,0 +1,397 @@
+package com.mangareader.prototype.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mangareader.prototype.model.SearchParams;
+import com.mangareader.prototype.model.SearchResult;
+import com.mangareader.prototype.source.MangaSource;
+
+/**
+ * SearchCache keeps parsed search results, keyed by source and the canonical
+ * form of the SearchParams (SearchParams.canonicalKey()).
+ *
+ * 1. Memory: the last MEMORY_ENTRIES results (LRU)
+ * 2. Disk (./cache/search/): one JSON file per search, so the popular list
+ *    and recent searches survive a restart. Read off the caller's thread
+ *    (searches start on the FX thread). Files past MAX_STALE are deleted,
+ *    and beyond MAX_DISK_ENTRIES the least recently used go (by mtime,
+ *    which reads refresh); pruned at startup and after writes.
+ *
+ * Stale-while-revalidate: a result younger than FRESH_TTL is served as is.
+ * An older one (up to MAX_STALE) is still served immediately, and the search
+ * is re-run in the background; the fresh result replaces the cached one and
+ * is handed to the caller's onRevalidated callback. Identical searches that
+ * overlap share one request (SingleFlight).
+ */
+public class SearchCache {
+    private static final Duration FRESH_TTL = Duration.ofMinutes(2);
+    private static final Duration MAX_STALE = Duration.ofDays(1);
+    private static final int MEMORY_ENTRIES = 64;
+    private static final int MAX_DISK_ENTRIES = 500;
+
+    private static final SearchCache instance = new SearchCache();
+
+    private final Map<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MEMORY_ENTRIES;
+        }
+    };
+    private final SingleFlight<String, SearchResult> inFlight = new SingleFlight<>();
+    private final ObjectMapper objectMapper;
+    private final Path cacheDir;
+    private final boolean diskCacheEnabled;
+    // Disk reads and pruning, off the callers' threads
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-cache-disk");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean pruneScheduled = new AtomicBoolean();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+
+    private SearchCache() {
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        String projectDir = System.getProperty("user.dir");
+        this.cacheDir = Paths.get(projectDir, "cache", "search");
+        boolean cacheCreated = false;
+        try {
+            Files.createDirectories(cacheDir);
+            cacheCreated = true;
+        } catch (IOException e) {
+            System.err.println("Failed to create search cache directory: " + e.getMessage());
+        }
+        this.diskCacheEnabled = cacheCreated;
+        schedulePrune();
+    }
+
+    public static SearchCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Cache key of a search on a source
+     */
+    public static String key(MangaSource source, SearchParams params) {
+        return source.getId() + "|" + params.canonicalKey();
+    }
+
+    /**
+     * The result of a search, from the cache when possible. A memory hit is
+     * already complete when returned; anything else completes later, so this
+     * never blocks the calling thread.
+     *
+     * @param onRevalidated called with the fresh result when a stale one was
+     *                      served and the background search succeeded; may
+     *                      be null
+     */
+    public CompletableFuture<SearchResult> get(MangaSource source, SearchParams params,
+            Consumer<SearchResult> onRevalidated) {
+        SearchParams snapshot = params.copy();
+        String key = key(source, snapshot);
+        Entry entry;
+        synchronized (memory) {
+            entry = memory.get(key);
+        }
+        if (entry != null || !diskCacheEnabled) {
+            return serve(source, snapshot, key, entry, onRevalidated);
+        }
+
+        // Not in memory: the disk lookup (file read and JSON parse) runs on
+        // diskExecutor. Cancelling the result cancels the search behind it.
+        CompletableFuture<SearchResult> result = new CompletableFuture<>();
+        CompletableFuture.supplyAsync(() -> readFromDisk(key), diskExecutor).whenComplete((fromDisk, error) -> {
+            if (result.isDone()) {
+                return;
+            }
+            Entry found = null;
+            if (fromDisk != null) {
+                synchronized (memory) {
+                    found = memory.putIfAbsent(key, fromDisk);
+                }
+                found = found != null ? found : fromDisk;
+            }
+            CompletableFuture<SearchResult> served = serve(source, snapshot, key, found, onRevalidated);
+            served.whenComplete((value, searchError) -> {
+                if (searchError != null) {
+                    result.completeExceptionally(searchError);
+                } else {
+                    result.complete(value);
+                }
+            });
+            result.whenComplete((value, resultError) -> {
+                if (result.isCancelled()) {
+                    served.cancel(true);
+                }
+            });
+        });
+        return result;
+    }
+
+    /**
+     * Answer from the entry when it is fresh or stale enough, otherwise search
+     */
+    private CompletableFuture<SearchResult> serve(MangaSource source, SearchParams snapshot, String key,
+            Entry entry, Consumer<SearchResult> onRevalidated) {
+        if (entry != null && entry.age().compareTo(FRESH_TTL) <= 0) {
+            hits.increment();
+            return CompletableFuture.completedFuture(entry.result);
+        }
+        if (entry != null && entry.age().compareTo(MAX_STALE) <= 0) {
+            staleHits.increment();
+            revalidations.increment();
+            search(source, snapshot, key).whenComplete((fresh, error) -> {
+                if (error != null) {
+                    System.err.println("Search revalidation failed: " + error.getMessage());
+                } else if (onRevalidated != null) {
+                    onRevalidated.accept(fresh);
+                }
+            });
+            return CompletableFuture.completedFuture(entry.result);
+        }
+
+        misses.increment();
+        return search(source, snapshot, key);
+    }
+
+    /**
+     * Forget everything, in memory and on disk
+     */
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+        }
+        if (!diskCacheEnabled) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            files.forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    System.err.println("Error deleting search cache file: " + e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error clearing search cache: " + e.getMessage());
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.sum(), staleHits.sum(), misses.sum(), revalidations.sum());
+    }
+
+    private CompletableFuture<SearchResult> search(MangaSource source, SearchParams params, String key) {
+        return inFlight.execute(key, () -> {
+            CompletableFuture<SearchResult> search = source.advancedSearchAsync(params);
+            search.thenAccept(result -> store(key, result));
+            return search;
+        });
+    }
+
+    private void store(String key, SearchResult result) {
+        Entry entry = new Entry(result, System.currentTimeMillis());
+        synchronized (memory) {
+            memory.put(key, entry);
+        }
+        if (!diskCacheEnabled) {
+            return;
+        }
+        try {
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("key", key);
+            node.put("storedAt", entry.storedAt);
+            node.set("result", objectMapper.valueToTree(result));
+            Path file = fileFor(key);
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            objectMapper.writeValue(temp.toFile(), node);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Failed to write search cache entry: " + e.getMessage());
+        }
+        schedulePrune();
+    }
+
+    private void schedulePrune() {
+        if (diskCacheEnabled && pruneScheduled.compareAndSet(false, true)) {
+            diskExecutor.execute(this::prune);
+        }
+    }
+
+    /**
+     * Delete expired files, then the least recently used ones beyond
+     * MAX_DISK_ENTRIES
+     */
+    private void prune() {
+        pruneScheduled.set(false);
+        long now = System.currentTimeMillis();
+        List<Map.Entry<Path, Long>> kept = new ArrayList<>();
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                long modified = Files.getLastModifiedTime(file).toMillis();
+                if (now - modified > MAX_STALE.toMillis()) {
+                    Files.deleteIfExists(file);
+                    deleted++;
+                } else if (file.getFileName().toString().endsWith(".json")) {
+                    kept.add(Map.entry(file, modified));
+                }
+            }
+            if (kept.size() > MAX_DISK_ENTRIES) {
+                kept.sort(Map.Entry.comparingByValue());
+                for (Map.Entry<Path, Long> file : kept.subList(0, kept.size() - MAX_DISK_ENTRIES)) {
+                    Files.deleteIfExists(file.getKey());
+                    deleted++;
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error pruning search cache: " + e.getMessage());
+        }
+        if (deleted > 0) {
+            System.out.println("Search cache: pruned " + deleted + " entries");
+        }
+    }
+
+    private Entry readFromDisk(String key) {
+        if (!diskCacheEnabled) {
+            return null;
+        }
+        Path file = fileFor(key);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(file.toFile());
+            if (!key.equals(node.path("key").asText())) {
+                return null;
+            }
+            Entry entry = new Entry(objectMapper.treeToValue(node.get("result"), SearchResult.class),
+                    node.path("storedAt").asLong());
+            if (entry.age().compareTo(MAX_STALE) > 0) {
+                Files.deleteIfExists(file); // would only be searched again
+                return null;
+            }
+            entry.result.updatePaginationInfo();
+            // The mtime is the last use, for pruning
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return entry;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Discarding unreadable search cache entry: " + e.getMessage());
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+            }
+            return null;
+        }
+    }
+
+    private Path fileFor(String key) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            StringBuilder name = new StringBuilder();
+            for (byte b : md.digest(key.getBytes(StandardCharsets.UTF_8))) {
+                name.append(String.format("%02x", b));
+            }
+            return cacheDir.resolve(name + ".json");
+        } catch (NoSuchAlgorithmException e) {
+            return cacheDir.resolve(Integer.toHexString(key.hashCode()) + ".json");
+        }
+    }
+
+    private static final class Entry {
+        final SearchResult result;
+        final long storedAt;
+
+        Entry(SearchResult result, long storedAt) {
+            this.result = result;
+            this.storedAt = storedAt;
+        }
+
+        Duration age() {
+            return Duration.ofMillis(System.currentTimeMillis() - storedAt);
+        }
+    }
+
+    /**
+     * Search cache counters
+     */
+    public static class Stats {
+        private final long hits;
+        private final long staleHits;
+        private final long misses;
+        private final long revalidations;
+
+        public Stats(long hits, long staleHits, long misses, long revalidations) {
+            this.hits = hits;
+            this.staleHits = staleHits;
+            this.misses = misses;
+            this.revalidations = revalidations;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getStaleHits() {
+            return staleHits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getRevalidations() {
+            return revalidations;
+        }
+
+        /**
+         * Share of lookups answered from the cache (fresh or stale)
+         */
+        public double getHitRate() {
+            long total = hits + staleHits + misses;
+            return total == 0 ? 0 : (hits + staleHits) / (double) total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.0f%% hit rate (%d fresh, %d stale, %d misses)", getHitRate() * 100, hits,
+                    staleHits, misses);
+        }
+    }
+}
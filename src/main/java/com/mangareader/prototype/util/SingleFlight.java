@@ -0,0 +1,172 @@
+package com.mangareader.prototype.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * SingleFlight coalesces concurrent requests for the same key: while a call
+ * for a key is in flight, later callers share its result instead of starting
+ * their own.
+ *
+ * Every caller gets its own future, so one caller cancelling does not affect
+ * the others; the underlying call is only cancelled once every caller has
+ * cancelled. Once a call completes the key is free again (this is not a
+ * cache, only deduplication of work that overlaps in time).
+ *
+ * Callers share the result object itself, so it should be treated as
+ * read-only.
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, Call<V>> calls = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlight() {
+    }
+
+    /**
+     * Join the in-flight call for the key, or start one with the supplier.
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> supplier) {
+        requests.increment();
+        while (true) {
+            Call<V> call = calls.get(key);
+            if (call != null && call.shared.isDone()) {
+                // Finished, its removal just has not run yet: the key is free
+                calls.remove(key, call);
+                call = null;
+            }
+            if (call == null) {
+                Call<V> created = new Call<>();
+                call = calls.putIfAbsent(key, created);
+                if (call == null) {
+                    CompletableFuture<V> caller = created.join();
+                    start(key, created, supplier);
+                    executions.increment();
+                    return caller;
+                }
+            }
+            CompletableFuture<V> caller = call.join();
+            if (caller != null) {
+                coalesced.increment();
+                return caller;
+            }
+            // Every earlier caller cancelled the call; drop it and start over
+            calls.remove(key, call);
+        }
+    }
+
+    public Stats getStats() {
+        return new Stats(requests.sum(), executions.sum(), coalesced.sum(), calls.size());
+    }
+
+    private void start(K key, Call<V> call, Supplier<CompletableFuture<V>> supplier) {
+        call.shared.whenComplete((value, error) -> calls.remove(key, call));
+
+        CompletableFuture<V> source;
+        try {
+            source = supplier.get();
+        } catch (RuntimeException e) {
+            call.shared.completeExceptionally(e);
+            return;
+        }
+        source.whenComplete((value, error) -> {
+            if (error != null) {
+                call.shared.completeExceptionally(error);
+            } else {
+                call.shared.complete(value);
+            }
+        });
+        call.shared.whenComplete((value, error) -> {
+            if (call.shared.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+    }
+
+    private static final class Call<V> {
+        private final CompletableFuture<V> shared = new CompletableFuture<>();
+        private int callers;
+        private boolean abandoned;
+
+        /**
+         * @return a future for one more caller, or null if the call was
+         *         already abandoned by all its callers
+         */
+        private synchronized CompletableFuture<V> join() {
+            if (abandoned) {
+                return null;
+            }
+            callers++;
+            CompletableFuture<V> caller = new CompletableFuture<>();
+            shared.whenComplete((value, error) -> {
+                if (error != null) {
+                    caller.completeExceptionally(error);
+                } else {
+                    caller.complete(value);
+                }
+            });
+            caller.whenComplete((value, error) -> {
+                if (caller.isCancelled()) {
+                    leave();
+                }
+            });
+            return caller;
+        }
+
+        private void leave() {
+            synchronized (this) {
+                callers--;
+                if (callers > 0 || shared.isDone()) {
+                    return;
+                }
+                abandoned = true;
+            }
+            shared.cancel(true);
+        }
+    }
+
+    /**
+     * Coalescing counters: how many requests came in, how many actually ran,
+     * and how many were served by joining a call already in flight
+     */
+    public static class Stats {
+        private final long requests;
+        private final long executions;
+        private final long coalesced;
+        private final int inFlight;
+
+        public Stats(long requests, long executions, long coalesced, int inFlight) {
+            this.requests = requests;
+            this.executions = executions;
+            this.coalesced = coalesced;
+            this.inFlight = inFlight;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getExecutions() {
+            return executions;
+        }
+
+        public long getCoalesced() {
+            return coalesced;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests, %d executed, %d coalesced (%d in flight)",
+                    requests, executions, coalesced, inFlight);
+        }
+    }
+}
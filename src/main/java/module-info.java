@@ -6,12 +6,11 @@ module com.mangareader.prototype {
     requires transitive javafx.base;
     requires com.fasterxml.jackson.databind;
     requires com.fasterxml.jackson.datatype.jsr310;
-    requires org.apache.httpcomponents.client5.httpclient5;
-    requires org.apache.httpcomponents.core5.httpcore5;
     requires org.jsoup;
-    requires java.net.http;
+    requires transitive java.net.http;
     requires java.sql;
     requires java.prefs;
+    requires java.desktop;
 
     opens com.mangareader.prototype to javafx.fxml;
     opens com.mangareader.prototype.ui.view to javafx.fxml;
@@ -30,4 +29,5 @@ module com.mangareader.prototype {
     exports com.mangareader.prototype.source.impl;
     exports com.mangareader.prototype.service;
     exports com.mangareader.prototype.service.impl;
+    exports com.mangareader.prototype.util;
 }
\ No newline at end of file
@@ -0,0 +1,243 @@
+package com.mangareader.prototype.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.mangareader.prototype.model.Chapter;
+import com.mangareader.prototype.model.SearchParams;
+import com.mangareader.prototype.source.impl.MangaDexParseBenchmark;
+import com.mangareader.prototype.source.impl.MangaDexSource;
+import com.mangareader.prototype.util.HttpResponseCache;
+import com.mangareader.prototype.util.ImageCache;
+import com.mangareader.prototype.util.RateLimiter;
+
+/**
+ * Drives MangaDexSource and ImageCache against StubMangaDexServer and reports
+ * latency percentiles per scenario:
+ * - search: advancedSearchAsync, one page of results
+ * - chapter-open: getChaptersAsync then getChapterPagesAsync of one chapter
+ * - page: ImageCache.fetchImage of one page image
+ * Then it reports the bytes allocated per parse of a search, entity and feed
+ * body, streaming versus tree-based (see MangaDexParseBenchmark).
+ *
+ * Settings are system properties (defaults in brackets):
+ * loadtest.concurrency [8], loadtest.iterations [200], loadtest.latencyMs [20],
+ * loadtest.rateLimitEvery [0], loadtest.dripKBps [0], loadtest.respectRateLimits [false],
+ * loadtest.fixtures [none]: recorded responses for the stub to serve.
+ *
+ * Run with: mvn test-compile, then
+ * java -cp target/classes:target/test-classes:<dependencies>
+ * com.mangareader.prototype.loadtest.MangaDexLoadDriver
+ */
+public class MangaDexLoadDriver {
+    private static final double UNLIMITED_PERMITS_PER_SECOND = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 8);
+        int iterations = Integer.getInteger("loadtest.iterations", 200);
+
+        String fixtures = System.getProperty("loadtest.fixtures");
+        try (StubMangaDexServer stub = fixtures != null
+                ? new StubMangaDexServer(Path.of(fixtures).toAbsolutePath().normalize())
+                : new StubMangaDexServer()) {
+            stub.setLatency(Duration.ofMillis(Long.getLong("loadtest.latencyMs", 20)));
+            stub.setRateLimitEvery(Integer.getInteger("loadtest.rateLimitEvery", 0));
+            stub.setDripBytesPerSecond(Long.getLong("loadtest.dripKBps", 0) * 1024);
+            stub.start();
+
+            // Measure the client, not the cache or the production rate limits
+            HttpResponseCache.getInstance().setTtl(".*", Duration.ZERO);
+            if (!Boolean.getBoolean("loadtest.respectRateLimits")) {
+                RateLimiter.getInstance().configureHost("127.0.0.1", UNLIMITED_PERMITS_PER_SECOND,
+                        (int) UNLIMITED_PERMITS_PER_SECOND);
+            }
+
+            MangaDexSource source = new MangaDexSource(stub.getBaseUrl(), stub.getCoverBaseUrl(), null);
+            MangaDexLoadDriver driver = new MangaDexLoadDriver(concurrency);
+            try {
+                driver.run("search", iterations, i -> {
+                    SearchParams params = new SearchParams();
+                    params.setQuery("stub");
+                    params.setPage(i % 10 + 1);
+                    source.advancedSearchAsync(params).join();
+                    return 0;
+                });
+
+                driver.run("chapter-open", iterations, i -> {
+                    String mangaId = stub.mangaId(i % 50);
+                    List<Chapter> chapters = source.getChaptersAsync(mangaId).join();
+                    Chapter chapter = chapters.get(i % chapters.size());
+                    source.getChapterPagesAsync(mangaId, chapter.getId()).join();
+                    return 0;
+                });
+
+                List<String> pageUrls = source.getChapterPagesAsync(stub.mangaId(0),
+                        source.getChaptersAsync(stub.mangaId(0)).join().get(0).getId()).join();
+                driver.run("page", iterations, i -> {
+                    ImageCache.getInstance().fetchImage(pageUrls.get(i % pageUrls.size()));
+                    return stub.getPageBytes(pageUrls.get(i % pageUrls.size()));
+                });
+            } finally {
+                driver.shutdown();
+            }
+
+            System.out.println();
+            runParseBenchmark(stub, iterations);
+
+            System.out.println();
+            System.out.println("Stub: " + stub.getRequests() + " requests, " + stub.getRateLimited()
+                    + " answered with 429");
+            stub.getRouteCounts().forEach((route, count) -> System.out.println("  " + route + ": " + count));
+            RateLimiter.getInstance().getAllStats().values().forEach(stats -> System.out.println(stats));
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Fetch one body of each kind from the stub (or its fixtures) and compare
+     * the allocation of both ways of parsing it
+     */
+    private static void runParseBenchmark(StubMangaDexServer stub, int iterations) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        MangaDexParseBenchmark benchmark = new MangaDexParseBenchmark(stub.getCoverBaseUrl());
+        String mangaId = stub.mangaId(0);
+        benchmark.run("parse-search", MangaDexParseBenchmark.Kind.MANGA_LIST,
+                fetch(client, stub.getBaseUrl() + "/manga?limit=20&offset=0"), iterations);
+        benchmark.run("parse-entity", MangaDexParseBenchmark.Kind.MANGA_ENTITY,
+                fetch(client, stub.getBaseUrl() + "/manga/" + mangaId), iterations);
+        benchmark.run("parse-feed", MangaDexParseBenchmark.Kind.CHAPTER_LIST,
+                fetch(client, stub.getBaseUrl() + "/manga/" + mangaId + "/feed?limit=100&offset=0"), iterations);
+    }
+
+    private static byte[] fetch(HttpClient client, String url) throws Exception {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(url + " answered " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    /**
+     * One unit of work; returns the number of payload bytes it moved
+     */
+    interface Operation {
+        long run(int iteration) throws Exception;
+    }
+
+    private final int concurrency;
+    private final ExecutorService executor;
+
+    MangaDexLoadDriver(int concurrency) {
+        this.concurrency = concurrency;
+        this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "load-driver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run the operation `iterations` times on `concurrency` threads and print
+     * the latency distribution
+     */
+    Result run(String name, int iterations, Operation operation) {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            workers.add(CompletableFuture.runAsync(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < iterations) {
+                    long opStart = System.nanoTime();
+                    try {
+                        bytes.addAndGet(operation.run(i));
+                        latencies.add(System.nanoTime() - opStart);
+                    } catch (Exception e) {
+                        if (failures.getAndIncrement() == 0) {
+                            System.err.println(name + " failed: " + e.getMessage());
+                        }
+                    }
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0])).join();
+
+        Result result = new Result(name, latencies, failures.get(), bytes.get(), System.nanoTime() - start);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * Latency percentiles and throughput of one scenario
+     */
+    static class Result {
+        private final String name;
+        private final long[] sortedNanos;
+        private final int failures;
+        private final long bytes;
+        private final long elapsedNanos;
+
+        Result(String name, List<Long> latencies, int failures, long bytes, long elapsedNanos) {
+            this.name = name;
+            this.sortedNanos = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            this.failures = failures;
+            this.bytes = bytes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1_000_000.0;
+        }
+
+        double meanMillis() {
+            long total = 0;
+            for (long nanos : sortedNanos) {
+                total += nanos;
+            }
+            return sortedNanos.length == 0 ? 0 : total / 1_000_000.0 / sortedNanos.length;
+        }
+
+        double opsPerSecond() {
+            return sortedNanos.length * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            String line = String.format(
+                    "%-13s n=%d failed=%d %.1f ops/s mean=%.1fms p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms",
+                    name, sortedNanos.length, failures, opsPerSecond(), meanMillis(), percentileMillis(50),
+                    percentileMillis(90), percentileMillis(99), percentileMillis(100));
+            if (bytes > 0) {
+                line += String.format(" %.2f MB/s", bytes / 1024.0 / 1024.0
+                        / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+            }
+            return line;
+        }
+    }
+}
@@ -0,0 +1,464 @@
+package com.mangareader.prototype.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the MangaDex API, at-home page nodes and the cover CDN,
+ * for end-to-end load tests of the real MangaDexSource and ImageCache code.
+ *
+ * Routes (everything on one port):
+ * - /manga (search and ids[] batches), /manga/{id}, /manga/tag
+ * - /manga/{id}/feed (limit/offset paging)
+ * - /at-home/server/{chapterId}, pointing back at this server
+ * - /data/{hash}/{file}, /data-saver/{hash}/{file}: page images
+ * - /covers/{mangaId}/{file}: cover images
+ *
+ * Responses are generated from a deterministic synthetic catalogue
+ * (mangaCount series, chaptersPerManga chapters, pagesPerChapter pages). If a
+ * fixture directory is given, a file at <dir>/<request path>.json (or at
+ * <dir>/<request path> for images) is served instead.
+ *
+ * Fault injection: a fixed latency per response, a 429 (with Retry-After and
+ * X-RateLimit-* headers) every rateLimitEvery requests, and slow-drip bodies
+ * written at dripBytesPerSecond.
+ */
+public class StubMangaDexServer implements AutoCloseable {
+    // 1x1 PNG; image bodies are this plus padding after IEND, which decoders ignore
+    private static final byte[] PNG = Base64.getDecoder().decode(
+            "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mP8z8BQDwAEhQGAhKmMIQAAAABJRU5ErkJggg==");
+    private static final int DRIP_CHUNK_BYTES = 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path fixtureDir;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final Map<String, AtomicLong> routeCounts = new ConcurrentHashMap<>();
+
+    private volatile int mangaCount = 200;
+    private volatile int chaptersPerManga = 50;
+    private volatile int pagesPerChapter = 20;
+    private volatile int pageBytes = 300 * 1024;
+    private volatile int dataSaverPageBytes = 80 * 1024;
+    private volatile int coverBytes = 60 * 1024;
+    private volatile Duration latency = Duration.ZERO;
+    private volatile int rateLimitEvery;
+    private volatile long dripBytesPerSecond;
+
+    public StubMangaDexServer() throws IOException {
+        this(null);
+    }
+
+    /**
+     * @param fixtureDir recorded responses that take precedence over the
+     *                   synthetic ones; may be null
+     */
+    public StubMangaDexServer(Path fixtureDir) throws IOException {
+        this.fixtureDir = fixtureDir;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-mangadex");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("Stub MangaDex server listening on " + getBaseUrl());
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public String getCoverBaseUrl() {
+        return getBaseUrl() + "/covers";
+    }
+
+    public void setMangaCount(int mangaCount) {
+        this.mangaCount = mangaCount;
+    }
+
+    public void setChaptersPerManga(int chaptersPerManga) {
+        this.chaptersPerManga = chaptersPerManga;
+    }
+
+    public void setPagesPerChapter(int pagesPerChapter) {
+        this.pagesPerChapter = pagesPerChapter;
+    }
+
+    public void setPageBytes(int pageBytes, int dataSaverPageBytes) {
+        this.pageBytes = pageBytes;
+        this.dataSaverPageBytes = dataSaverPageBytes;
+    }
+
+    public void setCoverBytes(int coverBytes) {
+        this.coverBytes = coverBytes;
+    }
+
+    /**
+     * Added before every response
+     */
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Answer every n-th request with 429; 0 disables
+     */
+    public void setRateLimitEvery(int rateLimitEvery) {
+        this.rateLimitEvery = rateLimitEvery;
+    }
+
+    /**
+     * Write bodies at this rate; 0 writes them at full speed
+     */
+    public void setDripBytesPerSecond(long dripBytesPerSecond) {
+        this.dripBytesPerSecond = dripBytesPerSecond;
+    }
+
+    public String mangaId(int index) {
+        return String.format("00000000-0000-4000-8000-%012d", index);
+    }
+
+    /**
+     * Body size this server sends for a page URL it handed out
+     */
+    public int getPageBytes(String pageUrl) {
+        return pageUrl.contains("/data-saver/") ? dataSaverPageBytes : pageBytes;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getRateLimited() {
+        return rateLimited.get();
+    }
+
+    /**
+     * Request counts per route, sorted by route
+     */
+    public Map<String, Long> getRouteCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        routeCounts.forEach((route, count) -> counts.put(route, count.get()));
+        return counts;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            long count = requests.incrementAndGet();
+            sleep(latency.toNanos());
+
+            URI uri = exchange.getRequestURI();
+            String path = uri.getPath();
+            String[] segments = path.substring(1).split("/");
+            routeCounts.computeIfAbsent(routeOf(segments), route -> new AtomicLong()).incrementAndGet();
+
+            int every = rateLimitEvery;
+            if (every > 0 && count % every == 0) {
+                rateLimited.incrementAndGet();
+                long resetAt = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + 1;
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                exchange.getResponseHeaders().add("X-RateLimit-Limit", "5");
+                exchange.getResponseHeaders().add("X-RateLimit-Remaining", "0");
+                exchange.getResponseHeaders().add("X-RateLimit-Retry-After", String.valueOf(resetAt));
+                exchange.sendResponseHeaders(429, -1);
+                return;
+            }
+
+            byte[] fixture = readFixture(path);
+            if (fixture != null) {
+                String type = path.matches(".*\\.(png|jpe?g|gif|webp)$") ? "image/png" : "application/json";
+                send(exchange, 200, type, fixture);
+                return;
+            }
+
+            Map<String, List<String>> params = parseQuery(uri.getRawQuery());
+            byte[] body = route(segments, params);
+            if (body == null) {
+                send(exchange, 404, "application/json",
+                        "{\"result\":\"error\",\"errors\":[{\"status\":404}]}".getBytes(StandardCharsets.UTF_8));
+            } else if (isImageRoute(segments)) {
+                send(exchange, 200, "image/png", body);
+            } else {
+                send(exchange, 200, "application/json", body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private byte[] route(String[] segments, Map<String, List<String>> params) throws IOException {
+        switch (segments[0]) {
+            case "manga":
+                if (segments.length == 1) {
+                    return json(mangaList(params));
+                }
+                if (segments.length == 2 && "tag".equals(segments[1])) {
+                    return json(tagList());
+                }
+                if (segments.length == 2) {
+                    ObjectNode entity = response("entity");
+                    entity.set("data", manga(segments[1]));
+                    return json(entity);
+                }
+                if (segments.length == 3 && "feed".equals(segments[2])) {
+                    return json(feed(segments[1], params));
+                }
+                return null;
+            case "at-home":
+                return segments.length == 3 && "server".equals(segments[1]) ? json(atHome(segments[2])) : null;
+            case "data":
+                return image(pageBytes);
+            case "data-saver":
+                return image(dataSaverPageBytes);
+            case "covers":
+                return image(coverBytes);
+            default:
+                return null;
+        }
+    }
+
+    private ObjectNode mangaList(Map<String, List<String>> params) {
+        List<String> ids = params.getOrDefault("ids[]", List.of());
+        List<String> selected = new ArrayList<>();
+        int total;
+        if (!ids.isEmpty()) {
+            selected.addAll(ids);
+            total = ids.size();
+        } else {
+            int limit = intParam(params, "limit", 10);
+            int offset = intParam(params, "offset", 0);
+            for (int i = offset; i < Math.min(mangaCount, offset + limit); i++) {
+                selected.add(mangaId(i));
+            }
+            total = mangaCount;
+        }
+
+        ObjectNode response = response("collection");
+        ArrayNode data = response.putArray("data");
+        for (String id : selected) {
+            data.add(manga(id));
+        }
+        response.put("limit", selected.size());
+        response.put("total", total);
+        return response;
+    }
+
+    private ObjectNode manga(String id) {
+        ObjectNode manga = objectMapper.createObjectNode();
+        manga.put("id", id);
+        manga.put("type", "manga");
+        ObjectNode attributes = manga.putObject("attributes");
+        attributes.putObject("title").put("en", "Stub Manga " + id.substring(id.length() - 6));
+        attributes.putObject("description").put("en", "Synthetic series served by the stub server.");
+        attributes.put("status", "ongoing");
+        attributes.put("originalLanguage", "ja");
+        attributes.put("updatedAt", "2024-01-01T00:00:00+00:00");
+        ArrayNode tags = attributes.putArray("tags");
+        tags.add(tag("391b0423-d847-456f-aff0-8b0cfc03066b", "Action", "genre"));
+
+        ArrayNode relationships = manga.putArray("relationships");
+        ObjectNode author = relationships.addObject();
+        author.put("id", "author-" + id);
+        author.put("type", "author");
+        author.putObject("attributes").put("name", "Stub Author");
+        ObjectNode cover = relationships.addObject();
+        cover.put("id", "cover-" + id);
+        cover.put("type", "cover_art");
+        cover.putObject("attributes").put("fileName", "cover.png");
+        return manga;
+    }
+
+    private ObjectNode tagList() {
+        ObjectNode response = response("collection");
+        ArrayNode data = response.putArray("data");
+        data.add(tag("391b0423-d847-456f-aff0-8b0cfc03066b", "Action", "genre"));
+        data.add(tag("4d32cc48-9f00-4cca-9b5a-a839f0764984", "Comedy", "genre"));
+        data.add(tag("caaa44eb-cd40-4177-b930-79d3ef2afe87", "School Life", "theme"));
+        response.put("total", data.size());
+        return response;
+    }
+
+    private ObjectNode tag(String id, String name, String group) {
+        ObjectNode tag = objectMapper.createObjectNode();
+        tag.put("id", id);
+        tag.put("type", "tag");
+        ObjectNode attributes = tag.putObject("attributes");
+        attributes.putObject("name").put("en", name);
+        attributes.put("group", group);
+        return tag;
+    }
+
+    private ObjectNode feed(String mangaId, Map<String, List<String>> params) {
+        int limit = intParam(params, "limit", 100);
+        int offset = intParam(params, "offset", 0);
+        ObjectNode response = response("collection");
+        ArrayNode data = response.putArray("data");
+        for (int i = offset; i < Math.min(chaptersPerManga, offset + limit); i++) {
+            ObjectNode chapter = data.addObject();
+            chapter.put("id", mangaId + "-c" + i);
+            chapter.put("type", "chapter");
+            ObjectNode attributes = chapter.putObject("attributes");
+            attributes.put("title", "Chapter " + (i + 1));
+            attributes.put("chapter", String.valueOf(i + 1));
+            attributes.put("volume", String.valueOf(i / 10 + 1));
+            attributes.put("translatedLanguage", "en");
+            attributes.put("publishAt", "2024-01-01T00:00:00+00:00");
+        }
+        response.put("limit", limit);
+        response.put("offset", offset);
+        response.put("total", chaptersPerManga);
+        return response;
+    }
+
+    private ObjectNode atHome(String chapterId) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("result", "ok");
+        response.put("baseUrl", getBaseUrl());
+        ObjectNode chapter = response.putObject("chapter");
+        chapter.put("hash", Integer.toHexString(chapterId.hashCode()));
+        ArrayNode data = chapter.putArray("data");
+        ArrayNode dataSaver = chapter.putArray("dataSaver");
+        for (int i = 1; i <= pagesPerChapter; i++) {
+            data.add("p" + i + ".png");
+            dataSaver.add("p" + i + "-s.png");
+        }
+        return response;
+    }
+
+    private ObjectNode response(String kind) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("result", "ok");
+        response.put("response", kind);
+        return response;
+    }
+
+    private byte[] json(ObjectNode node) throws IOException {
+        return objectMapper.writeValueAsBytes(node);
+    }
+
+    private static byte[] image(int size) {
+        byte[] body = new byte[Math.max(size, PNG.length)];
+        System.arraycopy(PNG, 0, body, 0, PNG.length);
+        return body;
+    }
+
+    private byte[] readFixture(String path) throws IOException {
+        if (fixtureDir == null) {
+            return null;
+        }
+        Path file = fixtureDir.resolve(path.substring(1)).normalize();
+        if (!file.startsWith(fixtureDir)) {
+            return null;
+        }
+        if (!Files.isRegularFile(file)) {
+            file = file.resolveSibling(file.getFileName() + ".json");
+        }
+        return Files.isRegularFile(file) ? Files.readAllBytes(file) : null;
+    }
+
+    private void send(HttpExchange exchange, int status, String contentType, byte[] body)
+            throws IOException, InterruptedException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        long drip = dripBytesPerSecond;
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (drip <= 0) {
+                out.write(body);
+                return;
+            }
+            long chunkNanos = DRIP_CHUNK_BYTES * TimeUnit.SECONDS.toNanos(1) / drip;
+            for (int offset = 0; offset < body.length; offset += DRIP_CHUNK_BYTES) {
+                out.write(body, offset, Math.min(DRIP_CHUNK_BYTES, body.length - offset));
+                out.flush();
+                sleep(chunkNanos);
+            }
+        }
+    }
+
+    private static boolean isImageRoute(String[] segments) {
+        return "data".equals(segments[0]) || "data-saver".equals(segments[0]) || "covers".equals(segments[0]);
+    }
+
+    private static String routeOf(String[] segments) {
+        if ("manga".equals(segments[0])) {
+            if (segments.length == 1) {
+                return "/manga";
+            }
+            if ("tag".equals(segments[1])) {
+                return "/manga/tag";
+            }
+            return segments.length == 3 ? "/manga/{id}/" + segments[2] : "/manga/{id}";
+        }
+        return "/" + segments[0];
+    }
+
+    private static Map<String, List<String>> parseQuery(String query) {
+        Map<String, List<String>> params = new LinkedHashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            params.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+        return params;
+    }
+
+    private static int intParam(Map<String, List<String>> params, String name, int fallback) {
+        List<String> values = params.get(name);
+        if (values == null || values.isEmpty()) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(values.get(0));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static void sleep(long nanos) throws InterruptedException {
+        if (nanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+    }
+}
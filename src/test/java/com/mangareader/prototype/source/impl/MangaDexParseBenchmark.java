@@ -0,0 +1,300 @@
+package com.mangareader.prototype.source.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mangareader.prototype.model.Chapter;
+import com.mangareader.prototype.model.Manga;
+
+/**
+ * Compares the heap allocated per parse of a MangaDex response body by
+ * MangaDexJsonParser with the tree-based parsing it replaced: decode the body
+ * to a String, ObjectMapper.readTree, then walk the JsonNode tree. The tree
+ * parse is kept here as it was (minus its log lines).
+ *
+ * Bytes are counted with ThreadMXBean.getThreadAllocatedBytes on the calling
+ * thread, so only the parse itself is measured, not the HTTP exchange.
+ *
+ * On its own it runs on synthetic bodies shaped like MangaDex's: a search
+ * page of 20 manga, one manga, and a feed page of 100 chapters.
+ * Run with: mvn test-compile, then
+ * java -cp target/classes:target/test-classes:<dependencies>
+ * com.mangareader.prototype.source.impl.MangaDexParseBenchmark [iterations]
+ */
+public class MangaDexParseBenchmark {
+    public enum Kind {
+        MANGA_LIST, MANGA_ENTITY, CHAPTER_LIST
+    }
+
+    private static final int WARMUP_ITERATIONS = 200;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MangaDexJsonParser streamingParser;
+    private final String coverBaseUrl;
+    private final com.sun.management.ThreadMXBean threads;
+
+    public MangaDexParseBenchmark(String coverBaseUrl) {
+        this.streamingParser = new MangaDexJsonParser(new JsonFactory(), coverBaseUrl);
+        this.coverBaseUrl = coverBaseUrl;
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        MangaDexParseBenchmark benchmark = new MangaDexParseBenchmark("https://uploads.mangadex.org/covers");
+        ObjectMapper mapper = new ObjectMapper();
+
+        ObjectNode search = mapper.createObjectNode();
+        ArrayNode mangas = search.putArray("data");
+        for (int i = 0; i < 20; i++) {
+            mangas.add(syntheticManga(mapper, i));
+        }
+        ObjectNode entity = mapper.createObjectNode();
+        entity.set("data", syntheticManga(mapper, 0));
+        ObjectNode feed = mapper.createObjectNode();
+        ArrayNode chapters = feed.putArray("data");
+        for (int i = 0; i < 100; i++) {
+            ObjectNode chapter = chapters.addObject();
+            chapter.put("id", String.format("00000000-0000-4000-9000-%012d", i));
+            chapter.put("type", "chapter");
+            ObjectNode attributes = chapter.putObject("attributes");
+            attributes.put("title", "Chapter " + (i + 1));
+            attributes.put("chapter", String.valueOf(i + 1));
+            attributes.put("volume", String.valueOf(i / 10 + 1));
+            attributes.put("translatedLanguage", "en");
+            attributes.put("publishAt", "2024-01-01T00:00:00+00:00");
+        }
+
+        benchmark.run("parse-search", Kind.MANGA_LIST, mapper.writeValueAsBytes(search), iterations);
+        benchmark.run("parse-entity", Kind.MANGA_ENTITY, mapper.writeValueAsBytes(entity), iterations);
+        benchmark.run("parse-feed", Kind.CHAPTER_LIST, mapper.writeValueAsBytes(feed), iterations);
+    }
+
+    private static ObjectNode syntheticManga(ObjectMapper mapper, int index) {
+        String id = String.format("00000000-0000-4000-8000-%012d", index);
+        ObjectNode manga = mapper.createObjectNode();
+        manga.put("id", id);
+        manga.put("type", "manga");
+        ObjectNode attributes = manga.putObject("attributes");
+        attributes.putObject("title").put("en", "Synthetic Manga " + index);
+        attributes.putObject("description").put("en", "Synthetic series for the parse benchmark.");
+        attributes.put("status", "ongoing");
+        attributes.put("originalLanguage", "ja");
+        attributes.put("updatedAt", "2024-01-01T00:00:00+00:00");
+        ObjectNode tag = attributes.putArray("tags").addObject();
+        tag.put("id", "391b0423-d847-456f-aff0-8b0cfc03066b");
+        tag.put("type", "tag");
+        tag.putObject("attributes").putObject("name").put("en", "Action");
+
+        ArrayNode relationships = manga.putArray("relationships");
+        ObjectNode author = relationships.addObject();
+        author.put("id", "author-" + index);
+        author.put("type", "author");
+        author.putObject("attributes").put("name", "Synthetic Author");
+        ObjectNode cover = relationships.addObject();
+        cover.put("id", "cover-" + index);
+        cover.put("type", "cover_art");
+        cover.putObject("attributes").put("fileName", "cover.png");
+        return manga;
+    }
+
+    /**
+     * Parse the body `iterations` times each way, after a warmup so JIT
+     * compilation does not count, and print the bytes allocated per parse
+     */
+    public Result run(String name, Kind kind, byte[] body, int iterations) throws IOException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            parseTree(kind, body);
+            parseStreaming(kind, body);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        int items = 0;
+        long start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            items += parseTree(kind, body);
+        }
+        long treeBytes = threads.getThreadAllocatedBytes(threadId) - start;
+
+        start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            items -= parseStreaming(kind, body);
+        }
+        long streamingBytes = threads.getThreadAllocatedBytes(threadId) - start;
+
+        if (items != 0) {
+            throw new IllegalStateException(name + ": the parsers disagree on the number of items");
+        }
+        Result result = new Result(name, body.length, treeBytes / iterations, streamingBytes / iterations);
+        System.out.println(result);
+        return result;
+    }
+
+    private int parseStreaming(Kind kind, byte[] body) throws IOException {
+        ByteArrayInputStream in = new ByteArrayInputStream(body);
+        switch (kind) {
+            case MANGA_LIST:
+                return streamingParser.parseMangaList(in).items.size();
+            case MANGA_ENTITY:
+                return streamingParser.parseMangaEntity(in) != null ? 1 : 0;
+            default:
+                return streamingParser.parseChapterList(in).items.size();
+        }
+    }
+
+    private int parseTree(Kind kind, byte[] body) throws IOException {
+        JsonNode root = objectMapper.readTree(new String(body, StandardCharsets.UTF_8));
+        JsonNode data = root.get("data");
+        if (kind == Kind.MANGA_ENTITY) {
+            return data != null && parseMangaFromJson(data) != null ? 1 : 0;
+        }
+        int items = 0;
+        if (data != null && data.isArray()) {
+            for (JsonNode node : data) {
+                if (kind == Kind.MANGA_LIST) {
+                    parseMangaFromJson(node);
+                } else {
+                    parseChapterFromJson(node);
+                }
+                items++;
+            }
+        }
+        return items;
+    }
+
+    private Manga parseMangaFromJson(JsonNode node) {
+        Manga manga = new Manga();
+        JsonNode attributes = node.path("attributes");
+        manga.setId(node.path("id").asText());
+        manga.setTitle(attributes.path("title").path("en").asText());
+        manga.setDescription(attributes.path("description").path("en").asText());
+        manga.setStatus(attributes.path("status").asText());
+        String updatedAt = attributes.path("updatedAt").asText("");
+        if (!updatedAt.isEmpty()) {
+            manga.setLastUpdated(LocalDateTime.parse(updatedAt, DateTimeFormatter.ISO_DATE_TIME));
+        }
+        List<String> genres = new ArrayList<>();
+        JsonNode tags = attributes.path("tags");
+        if (tags.isArray()) {
+            for (JsonNode tag : tags) {
+                JsonNode tagName = tag.path("attributes").path("name").path("en");
+                if (!tagName.isMissingNode())
+                    genres.add(tagName.asText());
+            }
+        }
+        manga.setGenres(genres);
+        manga.setLanguage(attributes.path("originalLanguage").asText("en"));
+        StringBuilder authors = new StringBuilder();
+        StringBuilder artists = new StringBuilder();
+        JsonNode relationships = node.path("relationships");
+        if (relationships.isArray()) {
+            for (JsonNode rel : relationships) {
+                String type = rel.path("type").asText();
+                JsonNode attr = rel.path("attributes");
+                if ("author".equals(type) && attr.has("name")) {
+                    if (authors.length() > 0)
+                        authors.append(", ");
+                    authors.append(attr.get("name").asText());
+                }
+                if ("artist".equals(type) && attr.has("name")) {
+                    if (artists.length() > 0)
+                        artists.append(", ");
+                    artists.append(attr.get("name").asText());
+                }
+                if ("cover_art".equals(type)) {
+                    JsonNode fileNameNode = attr.path("fileName");
+                    if (!fileNameNode.isMissingNode() && !fileNameNode.isNull()) {
+                        manga.setCoverUrl(String.format("%s/%s/%s", coverBaseUrl, manga.getId(),
+                                fileNameNode.asText()));
+                    }
+                }
+            }
+        }
+        manga.setAuthor(authors.toString());
+        manga.setArtist(artists.toString());
+        if (manga.getCoverUrl() == null)
+            manga.setCoverUrl("");
+        return manga;
+    }
+
+    private Chapter parseChapterFromJson(JsonNode node) {
+        Chapter chapter = new Chapter();
+        JsonNode attributes = node.get("attributes");
+        if (node.has("id")) {
+            chapter.setId(node.get("id").asText());
+        }
+        if (attributes == null) {
+            return chapter;
+        }
+        JsonNode mangaIdNode = attributes.get("mangaId");
+        if (mangaIdNode != null && !mangaIdNode.isNull()) {
+            chapter.setMangaId(mangaIdNode.asText());
+        }
+        JsonNode titleNode = attributes.get("title");
+        chapter.setTitle(titleNode != null && !titleNode.isNull() ? titleNode.asText() : "");
+        JsonNode chapterNode = attributes.get("chapter");
+        chapter.setNumber(0.0);
+        if (chapterNode != null && !chapterNode.isNull()) {
+            try {
+                chapter.setNumber(Double.parseDouble(chapterNode.asText()));
+            } catch (NumberFormatException e) {
+                // Stays 0
+            }
+        }
+        JsonNode volumeNode = attributes.get("volume");
+        if (volumeNode != null && !volumeNode.isNull()) {
+            chapter.setVolume(volumeNode.asText());
+        }
+        JsonNode publishAtNode = attributes.get("publishAt");
+        if (publishAtNode != null && !publishAtNode.isNull()) {
+            try {
+                chapter.setReleaseDate(LocalDateTime.parse(publishAtNode.asText(), DateTimeFormatter.ISO_DATE_TIME));
+            } catch (Exception e) {
+                // Left unset
+            }
+        }
+        return chapter;
+    }
+
+    /**
+     * Bytes allocated per parse of one body, both ways
+     */
+    public static class Result {
+        private final String name;
+        private final int bodyBytes;
+        private final long treeBytes;
+        private final long streamingBytes;
+
+        Result(String name, int bodyBytes, long treeBytes, long streamingBytes) {
+            this.name = name;
+            this.bodyBytes = bodyBytes;
+            this.treeBytes = treeBytes;
+            this.streamingBytes = streamingBytes;
+        }
+
+        /**
+         * Fraction of the tree parse's allocation the streaming parser saves
+         */
+        public double getReduction() {
+            return treeBytes == 0 ? 0 : 1 - (double) streamingBytes / treeBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-13s body=%dB tree=%dB/parse streaming=%dB/parse reduction=%.0f%%",
+                    name, bodyBytes, treeBytes, streamingBytes, getReduction() * 100);
+        }
+    }
+}